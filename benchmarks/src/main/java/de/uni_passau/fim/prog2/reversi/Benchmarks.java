@@ -0,0 +1,61 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * {@code Benchmarks} startet die JMH Benchmarks der Maschine. Alle Optionen
+ * werden an JMH weitergegeben, wobei der GC Profiler ({@code -prof gc})
+ * immer aktiviert wird, sodass zu jedem Benchmark die Allokationsrate
+ * ausgegeben wird und Regressionen beim Anlegen von Objekten sichtbar
+ * werden.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see MoveGenerationBenchmark
+ * @see EvaluationBenchmark
+ * @see SearchBenchmark
+ * @see TreeBenchmark
+ */
+public final class Benchmarks {
+
+    /**
+     * Entspricht der Option von JMH, die einen Profiler aktiviert.
+     */
+    private static final String PROFILER_OPTION = "-prof";
+
+    /**
+     * Entspricht dem Namen des GC Profilers von JMH.
+     */
+    private static final String GC_PROFILER = "gc";
+
+    private Benchmarks() { }
+
+    /**
+     * Startet JMH mit den übergebenen Optionen und dem GC Profiler.
+     *
+     * @param args              Entspricht den Optionen von JMH, zB ein
+     *                          regulärer Ausdruck für die auszuführenden
+     *                          Benchmarks.
+     * @throws IOException      Wird geworfen, falls JMH die Ergebnisse nicht
+     *                          schreiben kann.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean profiled = false;
+        for (int i = 0; i + 1 < options.size(); i++) {
+            if (options.get(i).equals(PROFILER_OPTION)
+                    && options.get(i + 1).equals(GC_PROFILER)) {
+                profiled = true;
+            }
+        }
+        if (!profiled) {
+            options.add(PROFILER_OPTION);
+            options.add(GC_PROFILER);
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,115 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@code EvaluationBenchmark} misst, wie viele Blätter pro Sekunde bewertet
+ * werden. Die Blätter sind die Spielsituationen einen Zug nach denen von
+ * {@link Positions}. Wie in der Suche wird jeder Zug direkt auf dem
+ * Spielfeld ausgeführt und danach rückgängig gemacht, sodass die Bewertung
+ * die legalen Züge für die Mobilität jedes Mal neu berechnen muss.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    /**
+     * Entspricht der Anzahl der Spielphasen mit eigenen Gewichten, wie sie
+     * {@link PatternWeightsBuilder} lernt.
+     */
+    private static final int NUMBER_OF_PHASES = 6;
+
+    /**
+     * Entspricht der gemessenen Bewertung. {@code score} steht für
+     * {@link ScoreEvaluator}, {@code pattern} für {@link PatternEvaluator}.
+     */
+    @Param({"score", "pattern"})
+    private String evaluatorName;
+
+    /**
+     * Entspricht der gemessenen Bewertung.
+     */
+    private Evaluator evaluator;
+
+    /**
+     * Entspricht den Spielsituationen, deren Züge zu den Blättern führen.
+     */
+    private Reversi[] positions;
+
+    /**
+     * Lädt die Spielsituationen und erzeugt die Bewertung. Die Gewichte der
+     * Muster sind alle {@code 0}, da die Dauer der Bewertung nicht von ihren
+     * Werten abhängt und so keine Datei mit Gewichten benötigt wird.
+     */
+    @Setup
+    public void setUp() {
+        positions = Positions.load();
+        if (evaluatorName.equals("score")) {
+            evaluator = ScoreEvaluator.INSTANCE;
+        } else {
+            evaluator = new PatternEvaluator(createEmptyWeights());
+        }
+    }
+
+    /**
+     * Misst die Bewertung eines Blattes aus der Sicht des Spielers, der vor
+     * dem Zug am Zug war, samt Ausführen und Rückgängigmachen des Zuges.
+     *
+     * @param blackhole     Nimmt die Bewertungen auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.NUMBER_OF_MOVES)
+    public void evaluateLeaves(Blackhole blackhole) {
+        for (Reversi position : positions) {
+            Player playerToAssess = position.next();
+            long moves = position.legalMoves(playerToAssess);
+            while (moves != 0) {
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                position.makeMove(square);
+                blackhole.consume(evaluator.evaluate(position,
+                        playerToAssess));
+                position.undoMove();
+            }
+        }
+    }
+
+    /**
+     * Erzeugt Gewichte für alle Phasen und Muster, die alle {@code 0} sind.
+     *
+     * @return              Gibt die Gewichte, indiziert nach Phase, Muster
+     *                      und Index, zurück.
+     */
+    private static short[][][] createEmptyWeights() {
+        int numberOfPatterns = PatternEvaluator.getNumberOfPatterns();
+        short[][][] weights = new short[NUMBER_OF_PHASES][][];
+        for (int phase = 0; phase < NUMBER_OF_PHASES; phase++) {
+            weights[phase] = new short[numberOfPatterns][];
+            for (int pattern = 0; pattern < weights[phase].length; pattern++) {
+                weights[phase][pattern]
+                        = new short[PatternEvaluator.getSize(pattern)];
+            }
+        }
+        return weights;
+    }
+}
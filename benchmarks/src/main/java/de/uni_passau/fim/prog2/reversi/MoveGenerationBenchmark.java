@@ -0,0 +1,123 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@code MoveGenerationBenchmark} misst den Durchsatz der Zuggenerierung auf
+ * den Spielsituationen von {@link Positions}. Gemessen werden das Berechnen
+ * der legalen Züge, das Ausführen der Züge auf Klonen, wie es die
+ * {@code Board} Schnittstelle tut, und das Ausführen und Rückgängigmachen
+ * der Züge direkt auf dem Spielfeld, wie es die Suche tut.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    /**
+     * Entspricht den Spielsituationen, auf denen gemessen wird.
+     */
+    private Reversi[] positions;
+
+    /**
+     * Entspricht den Steinen des Spielers am Zug pro Spielsituation.
+     */
+    private long[] own;
+
+    /**
+     * Entspricht den Steinen des Gegners pro Spielsituation.
+     */
+    private long[] enemy;
+
+    /**
+     * Lädt die Spielsituationen.
+     */
+    @Setup
+    public void setUp() {
+        positions = Positions.load();
+        own = new long[positions.length];
+        enemy = new long[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            Player next = positions[i].next();
+            own[i] = positions[i].getDiscs(next);
+            enemy[i] = positions[i].getDiscs(next.inverse());
+        }
+    }
+
+    /**
+     * Misst die Berechnung aller legalen Züge einer Spielsituation.
+     *
+     * @param blackhole     Nimmt die Züge auf, damit sie nicht wegoptimiert
+     *                      werden.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.SIZE)
+    public void legalMoves(Blackhole blackhole) {
+        for (int i = 0; i < own.length; i++) {
+            blackhole.consume(BitBoard.legalMoves(own[i], enemy[i]));
+        }
+    }
+
+    /**
+     * Misst das Ausführen eines Zuges auf einem Klon mit
+     * {@link Reversi#moveForNextPlayer(int)}.
+     *
+     * @param blackhole     Nimmt die Klone auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.NUMBER_OF_MOVES)
+    public void moveForNextPlayer(Blackhole blackhole) {
+        for (Reversi position : positions) {
+            long moves = position.legalMoves(position.next());
+            while (moves != 0) {
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                blackhole.consume(position.moveForNextPlayer(square));
+            }
+        }
+    }
+
+    /**
+     * Misst das Ausführen eines Zuges direkt auf dem Spielfeld samt der
+     * Anzahl der Antworten des Gegners und dem Rückgängigmachen des Zuges.
+     * Da ausgeführte Züge die zwischengespeicherten legalen Züge verwerfen,
+     * wird {@link Reversi#numberOfLegalMoves(Player)} jedes Mal neu
+     * berechnet.
+     *
+     * @param blackhole     Nimmt die Anzahl der Antworten auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.NUMBER_OF_MOVES)
+    public void makeAndUndoMove(Blackhole blackhole) {
+        for (Reversi position : positions) {
+            Player next = position.next();
+            long moves = position.legalMoves(next);
+            while (moves != 0) {
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                position.makeMove(square);
+                blackhole.consume(position.numberOfLegalMoves(
+                        next.inverse()));
+                position.undoMove();
+            }
+        }
+    }
+}
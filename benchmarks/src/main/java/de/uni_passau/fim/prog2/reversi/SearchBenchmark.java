@@ -0,0 +1,85 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@code SearchBenchmark} misst die Zeit, die die Maschine für einen Zug
+ * auf den Spielsituationen von {@link Positions} benötigt, für die Level
+ * {@code 1} bis {@code 8}. Gemessen wird die Alpha-Beta Suche mit
+ * Transpositionstabelle, wie sie die Maschine im Mittelspiel ohne
+ * Zeitlimit verwendet. Vor jeder Suche beginnt die Tabelle ein neues Spiel,
+ * sodass jeder Zug wie der erste Zug eines Spiels ohne Ergebnisse früherer
+ * Suchen berechnet wird.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see TreeBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in MB, wie sie die
+     * Maschine standardmäßig verwendet.
+     */
+    private static final int TABLE_SIZE = 16;
+
+    /**
+     * Entspricht der Schwierigkeitsstufe der Suche.
+     */
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8"})
+    private int level;
+
+    /**
+     * Entspricht den Spielsituationen, für die ein Zug gesucht wird.
+     */
+    private Reversi[] positions;
+
+    /**
+     * Entspricht der Transpositionstabelle der Suchen.
+     */
+    private TranspositionTable table;
+
+    /**
+     * Lädt die Spielsituationen und legt die Transpositionstabelle an.
+     */
+    @Setup
+    public void setUp() {
+        positions = Positions.load();
+        table = new TranspositionTable(TABLE_SIZE);
+    }
+
+    /**
+     * Misst die Zeit für einen Zug mit {@link Search#calculateBestMove(int)}.
+     *
+     * @param blackhole     Nimmt die ausgeführten Züge auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.SIZE)
+    public void calculateBestMove(Blackhole blackhole) {
+        for (Reversi position : positions) {
+            table.newGame();
+            Search search = new Search(position, SearchMode.ALPHA_BETA,
+                    table);
+            blackhole.consume(search.calculateBestMove(level));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@code TreeBenchmark} misst die Zeit, die {@link Tree} als Referenz der
+ * Suche für einen Zug auf den Spielsituationen von {@link Positions}
+ * benötigt. Da {@code Tree} den gesamten Baum im Speicher hält, wird nur bis
+ * Level {@code 5} gemessen. Ab Level {@code 6} dauert ein Zug im
+ * Mittelspiel mehrere Sekunden und der Baum belegt einen großen Teil des
+ * Heaps.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see SearchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark {
+
+    /**
+     * Entspricht der Schwierigkeitsstufe und somit der Tiefe des Baumes.
+     */
+    @Param({"1", "2", "3", "4", "5"})
+    private int level;
+
+    /**
+     * Entspricht den Spielsituationen, für die ein Zug gesucht wird.
+     */
+    private Reversi[] positions;
+
+    /**
+     * Lädt die Spielsituationen.
+     */
+    @Setup
+    public void setUp() {
+        positions = Positions.load();
+    }
+
+    /**
+     * Misst die Zeit für einen Zug mit {@link Tree#calculateBestMove()}.
+     *
+     * @param blackhole     Nimmt die ausgeführten Züge auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Positions.SIZE)
+    public void calculateBestMove(Blackhole blackhole) {
+        for (Reversi position : positions) {
+            blackhole.consume(new Tree(position, level).calculateBestMove());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code ConcurrentGamesTest} prüft die in {@link Board} beschriebene
+ * Threadsicherheit. Unabhängige Spiele rechnen parallel dieselben Züge wie
+ * nacheinander, während ein Spiel seine Maschine mit seinen Klonen teilt.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class ConcurrentGamesTest {
+
+    /**
+     * Entspricht der Anzahl an gleichzeitig gespielten Spielen.
+     */
+    private static final int NUMBER_OF_GAMES = 12;
+
+    /**
+     * Entspricht der Anzahl an Threads, auf die die Spiele verteilt werden.
+     */
+    private static final int NUMBER_OF_THREADS = 4;
+
+    /**
+     * Entspricht dem festen Level der Maschine.
+     */
+    private static final int LEVEL = 3;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der exakt gerechnet wird.
+     */
+    private static final int ENDGAME_THRESHOLD = 10;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle jedes Spiels in
+     * Megabyte.
+     */
+    private static final int TABLE_SIZE = 2;
+
+    /**
+     * Spielt alle Spiele nacheinander und anschließend gleichzeitig auf
+     * mehreren Threads, wobei jedes Spiel mit seinem eigenen Konstruktor
+     * erzeugt wird. Die Zugfolgen müssen übereinstimmen.
+     *
+     * @throws Exception        Wird geworfen, falls ein Spiel scheitert.
+     */
+    @Test
+    void independentGamesMatchSequentialPlay() throws Exception {
+        List<Callable<String>> games = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_GAMES; i++) {
+            int seed = i;
+            games.add(() -> play(seed));
+        }
+        List<String> sequential = new ArrayList<>();
+        for (Callable<String> game : games) {
+            sequential.add(game.call());
+        }
+
+        ExecutorService executor
+                = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            List<Future<String>> parallel = executor.invokeAll(games);
+            for (int i = 0; i < NUMBER_OF_GAMES; i++) {
+                assertEquals(sequential.get(i), parallel.get(i).get(),
+                        "Game " + i + " differs when played in parallel");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Ein Klon und ein mit {@code newGame} begonnenes Spiel teilen die
+     * Maschine und somit die Ergebnisse des letzten Zuges mit dem Spiel,
+     * ein mit dem Konstruktor erzeugtes Spiel nicht. Daher dürfen nur
+     * letztere von verschiedenen Threads gleichzeitig gespielt werden.
+     */
+    @Test
+    void copiesShareTheMachine() {
+        Reversi game = new Reversi(Player.MACHINE);
+        game.setLevel(1);
+        Reversi copy = game.clone();
+        Reversi next = game.newGame(Player.MACHINE);
+        Reversi independent = new Reversi(Player.MACHINE);
+
+        copy.machineMove();
+
+        assertNotNull(copy.getLastStatistics());
+        assertSame(copy.getLastStatistics(), game.getLastStatistics());
+        assertSame(copy.getLastStatistics(), next.getLastStatistics());
+        assertNull(independent.getLastStatistics());
+    }
+
+    /**
+     * Spielt ein Spiel mit festem Level, in dem der Mensch nach einer festen
+     * Regel unter seinen legalen Zügen wählt.
+     *
+     * @param seed      Entspricht der Nummer des Spiels, von der der erste
+     *                  Spieler und die Züge des Menschen abhängen.
+     * @return          Gibt alle Spielsituationen des Spiels als Text
+     *                  zurück.
+     */
+    private static String play(int seed) {
+        Board game = new Reversi(seed % 2 == 0 ? Player.HUMAN
+                : Player.MACHINE);
+        game.setLevel(LEVEL);
+        game.setEndgameThreshold(ENDGAME_THRESHOLD);
+        game.setTableSize(TABLE_SIZE);
+
+        StringBuilder transcript = new StringBuilder();
+        int turn = 0;
+        while (!game.gameOver()) {
+            if (game.next() == Player.MACHINE) {
+                game = game.machineMove();
+            } else {
+                List<Board> moves = new ArrayList<>();
+                for (int row = 1; row <= Board.SIZE; row++) {
+                    for (int col = 1; col <= Board.SIZE; col++) {
+                        Board move = game.move(row, col);
+                        if (move != null) {
+                            moves.add(move);
+                        }
+                    }
+                }
+                game = moves.get((turn * 7 + seed * 3) % moves.size());
+                turn++;
+            }
+            transcript.append(game).append('\n');
+        }
+        return transcript.toString();
+    }
+}
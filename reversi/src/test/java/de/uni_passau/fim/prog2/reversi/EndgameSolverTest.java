@@ -0,0 +1,135 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code EndgameSolverTest} vergleicht {@link EndgameSolver} mit einer
+ * einfachen Negamax Suche ohne Abschneiden, Tabelle oder Sonderfälle, die
+ * jede Spielsituation bis zum Ende des Spiels durchsucht.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class EndgameSolverTest {
+
+    /**
+     * Entspricht der Anzahl der Spielsituationen pro Test.
+     */
+    private static final int NUMBER_OF_POSITIONS = 50;
+
+    /**
+     * Entspricht der min Anzahl an leeren Feldern der Spielsituationen.
+     */
+    private static final int MIN_EMPTIES = 6;
+
+    /**
+     * Entspricht der max Anzahl an leeren Feldern der Spielsituationen.
+     */
+    private static final int MAX_EMPTIES = 12;
+
+    /**
+     * Vergleicht die Differenz der Steine und das Ergebnis von
+     * {@link EndgameSolver#solveExact(long)} sowie den Wert des gewählten
+     * Zuges mit der einfachen Suche.
+     */
+    @Test
+    void solveExactMatchesNegamax() {
+        List<Reversi> positions = RandomPositions.withEmpties(11,
+                NUMBER_OF_POSITIONS, MIN_EMPTIES, MAX_EMPTIES);
+        for (Reversi position : positions) {
+            EndgameSolver solver = new EndgameSolver(position);
+            Reversi move = solver.solveExact(Long.MAX_VALUE);
+            int[] expected = negamax(position, move);
+            String message = "At\n" + position;
+
+            assertEquals(expected[0], solver.getDiscDifferential(), message);
+            assertEquals(Integer.signum(expected[0]), solver.getOutcome(),
+                    message);
+            assertEquals(expected[0], expected[1], message);
+        }
+    }
+
+    /**
+     * Vergleicht das Ergebnis von
+     * {@link EndgameSolver#solveWinLossDraw(long)} und das Ergebnis des
+     * gewählten Zuges mit der einfachen Suche.
+     */
+    @Test
+    void solveWinLossDrawMatchesNegamax() {
+        List<Reversi> positions = RandomPositions.withEmpties(13,
+                NUMBER_OF_POSITIONS, MIN_EMPTIES, MAX_EMPTIES);
+        for (Reversi position : positions) {
+            EndgameSolver solver = new EndgameSolver(position);
+            Reversi move = solver.solveWinLossDraw(Long.MAX_VALUE);
+            int[] expected = negamax(position, move);
+            String message = "At\n" + position;
+
+            assertEquals(Integer.signum(expected[0]), solver.getOutcome(),
+                    message);
+            assertEquals(Integer.signum(expected[0]),
+                    Integer.signum(expected[1]), message);
+        }
+    }
+
+    /**
+     * Berechnet die Differenz der Steine am Ende des Spiels bei perfektem
+     * Spiel beider Spieler aus Sicht des nächst ziehenden Spielers, sowie
+     * die Differenz nach dem gewählten Zug.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @param move          Entspricht der Spielsituation nach dem gewählten
+     *                      Zug.
+     * @return              Gibt die Differenz der Spielsituation und die
+     *                      Differenz nach dem gewählten Zug zurück.
+     */
+    private static int[] negamax(Reversi position, Reversi move) {
+        Player player = position.next();
+        long own = position.getDiscs(player);
+        long enemy = position.getDiscs(player.inverse());
+        int best = Integer.MIN_VALUE;
+        int valueOfMove = Integer.MIN_VALUE;
+        for (long moves = BitBoard.legalMoves(own, enemy); moves != 0;
+                moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, enemy, square);
+            long ownAfterMove = own | flipped | 1L << square;
+            int value = -negamax(enemy & ~flipped, ownAfterMove);
+            best = Math.max(best, value);
+            if (move.getDiscs(player) == ownAfterMove) {
+                valueOfMove = value;
+            }
+        }
+        return new int[] {best, valueOfMove};
+    }
+
+    /**
+     * Durchsucht alle Züge bis zum Ende des Spiels ohne Abschneiden,
+     * Tabelle oder Sonderfälle. Kann der Spieler nicht ziehen, setzt er
+     * aus. Können beide nicht ziehen, ist das Spiel vorbei.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt die Differenz der Steine am Ende des Spiels
+     *                      aus Sicht des ziehenden Spielers zurück.
+     */
+    private static int negamax(long own, long enemy) {
+        long moves = BitBoard.legalMoves(own, enemy);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(enemy, own) == 0) {
+                return Long.bitCount(own) - Long.bitCount(enemy);
+            }
+            return -negamax(enemy, own);
+        }
+        int best = Integer.MIN_VALUE;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, enemy, square);
+            best = Math.max(best, -negamax(enemy & ~flipped,
+                    own | flipped | 1L << square));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,130 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code ParallelSearchTest} prüft, dass die parallelen Suchen auf den
+ * Spielsituationen von {@link Positions} bei fester Tiefe denselben Zug
+ * wählen wie {@link Search} mit einem Thread.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class ParallelSearchTest {
+
+    /**
+     * Entspricht der höchsten geprüften Schwierigkeitsstufe.
+     */
+    private static final int MAX_LEVEL = 5;
+
+    /**
+     * Entspricht der Anzahl an Threads der parallelen Suchen.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in Megabyte.
+     */
+    private static final int TABLE_SIZE = 16;
+
+    /**
+     * Entspricht den Threads der parallelen Suchen.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Startet die Threads.
+     */
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(THREADS);
+    }
+
+    /**
+     * Beendet die Threads.
+     */
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Vergleicht {@code ParallelSearch} im deterministischen Modus mit
+     * {@code Search} für die Stufen {@code 1} bis {@link #MAX_LEVEL}.
+     */
+    @Test
+    void deterministicRootSplitMatchesSearch() {
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            for (Reversi position : Positions.load()) {
+                assertEquals(sequentialMove(position, level),
+                        new ParallelSearch(position, pool, true, null)
+                                .calculateBestMove(level).toString(),
+                        "Level " + level + " at\n" + position);
+            }
+        }
+    }
+
+    /**
+     * Vergleicht {@code ParallelSearch} mit geteiltem Score und geteilter
+     * Transpositionstabelle mit {@code Search}.
+     */
+    @Test
+    void sharedRootSplitMatchesSearch() {
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            TranspositionTable table = new TranspositionTable(TABLE_SIZE);
+            for (Reversi position : Positions.load()) {
+                assertEquals(sequentialMove(position, level),
+                        new ParallelSearch(position, pool, false, table)
+                                .calculateBestMove(level).toString(),
+                        "Level " + level + " at\n" + position);
+            }
+        }
+    }
+
+    /**
+     * Vergleicht die über {@link Board} eingestellten parallelen Suchen mit
+     * der Suche mit einem Thread.
+     */
+    @Test
+    void boardSettingsMatchSingleThread() {
+        final int level = 4;
+        for (Reversi position : Positions.load()) {
+            Reversi human = position.moveForNextPlayer(Long
+                    .numberOfTrailingZeros(position.legalMoves(Player.HUMAN)));
+            if (human.gameOver() || human.next() != Player.MACHINE) {
+                continue;
+            }
+            human.setLevel(level);
+            human.setEndgameThreshold(0);
+            String expected = human.machineMove().toString();
+
+            human.setThreads(THREADS);
+            for (ParallelMode mode : ParallelMode.values()) {
+                human.setParallelMode(mode);
+                for (boolean deterministic : new boolean[] {false, true}) {
+                    human.setDeterministic(deterministic);
+                    assertEquals(expected, human.machineMove().toString(),
+                            mode + " at\n" + human);
+                }
+            }
+            human.setThreads(1);
+        }
+    }
+
+    /**
+     * Berechnet den Zug der Alpha-Beta Suche mit einem Thread.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @param level         Entspricht der Schwierigkeitsstufe.
+     * @return              Gibt den Zug als Text zurück.
+     */
+    private static String sequentialMove(Reversi position, int level) {
+        return new Search(position, SearchMode.ALPHA_BETA, null)
+                .calculateBestMove(level).toString();
+    }
+}
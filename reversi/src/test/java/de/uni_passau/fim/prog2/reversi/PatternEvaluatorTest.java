@@ -0,0 +1,76 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code PatternEvaluatorTest} prüft, dass {@link PatternEvaluator} mit
+ * zufälligen Gewichten alle Spiegelungen und Drehungen einer
+ * Spielsituation gleich bewertet, auch für Muster, die eine Symmetrie auf
+ * sich selbst abbildet.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class PatternEvaluatorTest {
+
+    /**
+     * Entspricht der Anzahl der Spielsituationen.
+     */
+    private static final int NUMBER_OF_POSITIONS = 200;
+
+    /**
+     * Entspricht der max Anzahl an Zügen vor den Spielsituationen.
+     */
+    private static final int MAX_MOVES = 58;
+
+    /**
+     * Entspricht der Anzahl der Spielphasen der Gewichte.
+     */
+    private static final int NUMBER_OF_PHASES = 4;
+
+    /**
+     * Vergleicht die Bewertung jeder Spielsituation mit der Bewertung ihrer
+     * Bilder unter allen Symmetrien des Spielfelds.
+     */
+    @Test
+    void symmetricPositionsEvaluateEqually() {
+        PatternEvaluator evaluator = new PatternEvaluator(randomWeights(7));
+        for (Reversi position : RandomPositions.afterMoves(17,
+                NUMBER_OF_POSITIONS, MAX_MOVES)) {
+            long own = position.getDiscs(position.next());
+            long enemy = position.getDiscs(position.next().inverse());
+            int expected = evaluator.evaluate(own, enemy);
+            for (int symmetry = 1; symmetry < BitBoard.NUMBER_OF_SYMMETRIES;
+                    symmetry++) {
+                assertEquals(expected, evaluator.evaluate(
+                        BitBoard.transform(own, symmetry),
+                        BitBoard.transform(enemy, symmetry)),
+                        "Symmetry " + symmetry + " at\n" + position);
+            }
+        }
+    }
+
+    /**
+     * Erzeugt zufällige Gewichte für alle Phasen und Muster.
+     *
+     * @param seed          Entspricht dem Seed der Zufallszahlen.
+     * @return              Gibt die Gewichte zurück.
+     */
+    private static short[][][] randomWeights(long seed) {
+        Random random = new Random(seed);
+        int patterns = PatternEvaluator.getNumberOfPatterns();
+        short[][][] weights = new short[NUMBER_OF_PHASES][patterns][];
+        for (short[][] phase : weights) {
+            for (int pattern = 0; pattern < patterns; pattern++) {
+                phase[pattern] = new short[PatternEvaluator.getSize(pattern)];
+                for (int index = 0; index < phase[pattern].length; index++) {
+                    phase[pattern][index] = (short) random.nextInt(256);
+                }
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,63 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code PerftTest} prüft die Zuggenerierung, indem {@link Board#perft(int,
+ * int)} ab der Anfangsstellung mit den bekannten Zahlen der Tiefen 1 bis 9
+ * verglichen wird, mit einem und mit mehreren Threads und für beide
+ * Spieler als ersten Spieler.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class PerftTest {
+
+    /**
+     * Entspricht den bekannten Zahlen ab der Anfangsstellung, indiziert nach
+     * der Tiefe.
+     */
+    private static final long[] EXPECTED = {1, 4, 12, 56, 244, 1396, 8200,
+        55092, 390216, 3005288};
+
+    /**
+     * Entspricht der Anzahl an Threads des parallelen Zählens.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * Vergleicht das Zählen mit einem Thread mit den bekannten Zahlen.
+     */
+    @Test
+    void singleThreadMatchesKnownCounts() {
+        checkCounts(1);
+    }
+
+    /**
+     * Vergleicht das parallele Zählen mit den bekannten Zahlen.
+     */
+    @Test
+    void severalThreadsMatchKnownCounts() {
+        checkCounts(THREADS);
+    }
+
+    /**
+     * Vergleicht die Zahlen aller Tiefen für beide ersten Spieler und prüft,
+     * dass die Anfangsstellung nicht verändert wird.
+     *
+     * @param threads       Entspricht der Anzahl an Threads.
+     */
+    private static void checkCounts(int threads) {
+        for (Player first : Player.values()) {
+            Board board = new Reversi(first);
+            String start = board.toString();
+            for (int depth = 1; depth < EXPECTED.length; depth++) {
+                assertEquals(EXPECTED[depth], board.perft(depth, threads),
+                        "Depth " + depth + " with " + first + " first");
+            }
+            assertEquals(start, board.toString());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * {@code PondererTest} prüft das Verhalten von {@link Ponderer} nach dem
+ * Zug des Menschen. Suchen, die nie enden würden, müssen durch
+ * {@link Ponderer#finish(Reversi)} und {@link Ponderer#cancel()} beendet
+ * werden, ohne dass danach weitere Antworten berechnet werden. Das
+ * großzügige Zeitlimit der Tests greift nur, falls sie hängen bleiben.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class PondererTest {
+
+    /**
+     * Entspricht der Tiefe der Suchen, die schnell enden.
+     */
+    private static final int LEVEL = 3;
+
+    /**
+     * Entspricht einer Tiefe, bis zu der eine Suche ab der Anfangsstellung
+     * nicht in der Laufzeit des Tests endet.
+     */
+    private static final int ENDLESS_LEVEL = 60;
+
+    /**
+     * Entspricht der Zeit in Sekunden, nach der ein hängender Test
+     * scheitert.
+     */
+    private static final int TIMEOUT = 60;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in Megabyte.
+     */
+    private static final int TABLE_SIZE = 16;
+
+    /**
+     * Zieht der Mensch einen der Züge, gibt {@code finish} dessen Index
+     * zurück und die Antwort darauf ist berechnet, egal an welcher Stelle
+     * der Reihenfolge der Zug steht.
+     */
+    @Test
+    @Timeout(value = TIMEOUT, unit = TimeUnit.SECONDS)
+    void finishReturnsTheReplyToThePlayedMove() {
+        Reversi position = new Reversi(Player.HUMAN);
+        List<Reversi> replies = getReplies(position);
+
+        for (int index = 0; index < replies.size(); index++) {
+            Ponderer ponderer = new Ponderer(position, replies, LEVEL, 0,
+                    new TranspositionTable(TABLE_SIZE));
+            ponderer.start();
+
+            assertEquals(index, ponderer.finish(replies.get(index).clone()));
+            assertNotNull(ponderer.getMove(index));
+            assertNotNull(ponderer.getStatistics(index));
+        }
+    }
+
+    /**
+     * Zieht der Mensch einen Zug, der nicht vorausberechnet wird, bricht
+     * {@code finish} die laufende Suche ab und keine Antwort wird
+     * berechnet.
+     */
+    @Test
+    @Timeout(value = TIMEOUT, unit = TimeUnit.SECONDS)
+    void finishStopsTheSearchOfOtherReplies() {
+        Reversi position = new Reversi(Player.HUMAN);
+        List<Reversi> replies = getReplies(position);
+        Reversi played = replies.remove(replies.size() - 1);
+        Ponderer ponderer = new Ponderer(position, replies, ENDLESS_LEVEL, 0,
+                new TranspositionTable(TABLE_SIZE));
+        ponderer.start();
+
+        assertEquals(-1, ponderer.finish(played));
+        for (int i = 0; i < replies.size(); i++) {
+            assertNull(ponderer.getMove(i), "Reply " + i);
+        }
+    }
+
+    /**
+     * Wird die Vorausberechnung abgebrochen, kehrt {@code cancel} trotz
+     * endloser Suche zurück und keine Antwort wird berechnet.
+     */
+    @Test
+    @Timeout(value = TIMEOUT, unit = TimeUnit.SECONDS)
+    void cancelStopsTheRunningSearch() {
+        Reversi position = new Reversi(Player.HUMAN);
+        List<Reversi> replies = getReplies(position);
+        Ponderer ponderer = new Ponderer(position, replies, ENDLESS_LEVEL, 0,
+                new TranspositionTable(TABLE_SIZE));
+        ponderer.start();
+
+        ponderer.cancel();
+        for (int i = 0; i < replies.size(); i++) {
+            assertNull(ponderer.getMove(i), "Reply " + i);
+        }
+    }
+
+    /**
+     * {@link Board#stopPondering()} beendet den Thread einer über
+     * {@link Board#ponder()} gestarteten Vorausberechnung.
+     */
+    @Test
+    @Timeout(value = TIMEOUT, unit = TimeUnit.SECONDS)
+    void stopPonderingEndsTheThread() {
+        Board game = new Reversi(Player.HUMAN);
+        game.setLevel(ENDLESS_LEVEL);
+        game.ponder();
+        assertTrue(isPonderingThreadAlive());
+
+        game.stopPondering();
+        assertFalse(isPonderingThreadAlive());
+    }
+
+    /**
+     * Gibt die Spielsituationen nach allen Zügen des Menschen zurück.
+     *
+     * @param position      Entspricht der Spielsituation, in der der Mensch
+     *                      am Zug ist.
+     * @return              Gibt die Spielsituationen zurück.
+     */
+    private static List<Reversi> getReplies(Reversi position) {
+        List<Reversi> replies = new ArrayList<>();
+        for (long moves = position.legalMoves(Player.HUMAN); moves != 0;
+                moves &= moves - 1) {
+            replies.add(position.moveForNextPlayer(
+                    Long.numberOfTrailingZeros(moves)));
+        }
+        return replies;
+    }
+
+    /**
+     * Gibt zurück, ob ein Thread einer Vorausberechnung läuft.
+     *
+     * @return              Gibt {@code true} zurück, falls ein Thread mit
+     *                      dem Namen der Vorausberechnung läuft.
+     */
+    private static boolean isPonderingThreadAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("ponderer") && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@code RandomPositions} erzeugt für die Tests reproduzierbare
+ * Spielsituationen, indem ab der Anfangsstellung zufällige legale Züge mit
+ * einem festen Seed gespielt werden. Spielsituationen, in denen das Spiel
+ * vorbei ist, werden verworfen.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class RandomPositions {
+
+    /**
+     * Entspricht der Anzahl an Feldern des Spielfelds.
+     */
+    private static final int NUMBER_OF_FIELDS = Board.SIZE * Board.SIZE;
+
+    private RandomPositions() { }
+
+    /**
+     * Erzeugt Spielsituationen nach einer zufälligen Anzahl an Zügen. Die
+     * Spiele werden abwechselnd vom Menschen und von der Maschine eröffnet,
+     * sodass in den Spielsituationen beide Spieler am Zug sind.
+     *
+     * @param seed          Entspricht dem Seed der Zufallszahlen.
+     * @param number        Entspricht der Anzahl der Spielsituationen.
+     * @param maxMoves      Entspricht der max Anzahl an Zügen ab der
+     *                      Anfangsstellung.
+     * @return              Gibt die Spielsituationen zurück.
+     */
+    static List<Reversi> afterMoves(long seed, int number, int maxMoves) {
+        Random random = new Random(seed);
+        List<Reversi> positions = new ArrayList<>();
+        while (positions.size() < number) {
+            Reversi position = start(positions.size());
+            int moves = random.nextInt(maxMoves + 1);
+            for (int i = 0; i < moves && !position.gameOver(); i++) {
+                position = randomMove(position, random);
+            }
+            if (!position.gameOver()) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Erzeugt Spielsituationen mit einer festen Anzahl an leeren Feldern.
+     *
+     * @param seed          Entspricht dem Seed der Zufallszahlen.
+     * @param number        Entspricht der Anzahl der Spielsituationen.
+     * @param minEmpties    Entspricht der min Anzahl an leeren Feldern.
+     * @param maxEmpties    Entspricht der max Anzahl an leeren Feldern.
+     * @return              Gibt die Spielsituationen zurück.
+     */
+    static List<Reversi> withEmpties(long seed, int number, int minEmpties,
+                                     int maxEmpties) {
+        Random random = new Random(seed);
+        List<Reversi> positions = new ArrayList<>();
+        while (positions.size() < number) {
+            Reversi position = start(positions.size());
+            int empties = minEmpties
+                    + random.nextInt(maxEmpties - minEmpties + 1);
+            while (!position.gameOver()
+                    && getNumberOfEmptyFields(position) > empties) {
+                position = randomMove(position, random);
+            }
+            if (!position.gameOver()) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Gibt die Anzahl der leeren Felder einer Spielsituation zurück.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @return              Gibt die Anzahl der leeren Felder zurück.
+     */
+    static int getNumberOfEmptyFields(Reversi position) {
+        return NUMBER_OF_FIELDS - position.getNumberOfHumanTiles()
+                - position.getNumberOfMachineTiles();
+    }
+
+    /**
+     * Kreiert die Anfangsstellung eines neuen Spiels.
+     *
+     * @param index         Entspricht der Nummer der Spielsituation, von der
+     *                      der erste Spieler abhängt.
+     * @return              Gibt die Anfangsstellung zurück.
+     */
+    private static Reversi start(int index) {
+        return new Reversi(index % 2 == 0 ? Player.HUMAN : Player.MACHINE);
+    }
+
+    /**
+     * Führt einen zufälligen legalen Zug des nächsten Spielers aus.
+     *
+     * @param position      Entspricht der Spielsituation, die nicht vorbei
+     *                      sein darf.
+     * @param random        Entspricht den Zufallszahlen.
+     * @return              Gibt einen Klon zurück, auf dem der Zug
+     *                      ausgeführt wurde.
+     */
+    private static Reversi randomMove(Reversi position, Random random) {
+        long moves = position.legalMoves(position.next());
+        int skipped = random.nextInt(Long.bitCount(moves));
+        for (int i = 0; i < skipped; i++) {
+            moves &= moves - 1;
+        }
+        return position.moveForNextPlayer(Long.numberOfTrailingZeros(moves));
+    }
+}
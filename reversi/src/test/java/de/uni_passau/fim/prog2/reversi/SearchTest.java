@@ -0,0 +1,74 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code SearchTest} prüft, dass {@link Search} mit beiden Verfahren von
+ * {@link SearchMode} denselben Zug wählt wie {@link Tree} mit derselben
+ * Schwierigkeitsstufe, mit und ohne Transpositionstabelle.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class SearchTest {
+
+    /**
+     * Entspricht der höchsten geprüften Schwierigkeitsstufe.
+     */
+    private static final int MAX_LEVEL = 4;
+
+    /**
+     * Entspricht der Anzahl der Spielsituationen pro Schwierigkeitsstufe.
+     */
+    private static final int NUMBER_OF_POSITIONS = 60;
+
+    /**
+     * Entspricht der max Anzahl an Zügen vor den Spielsituationen.
+     */
+    private static final int MAX_MOVES = 56;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in Megabyte.
+     */
+    private static final int TABLE_SIZE = 4;
+
+    /**
+     * Vergleicht {@code Tree}, die Minimax Suche und die Alpha-Beta Suche
+     * mit und ohne Transpositionstabelle für die Stufen {@code 1} bis
+     * {@link #MAX_LEVEL}.
+     */
+    @Test
+    void searchModesMatchTree() {
+        List<Reversi> positions = RandomPositions.afterMoves(5,
+                NUMBER_OF_POSITIONS, MAX_MOVES);
+        boolean humanToMove = false;
+        boolean machineToMove = false;
+        for (Reversi position : positions) {
+            humanToMove |= position.next() == Player.HUMAN;
+            machineToMove |= position.next() == Player.MACHINE;
+        }
+        assertTrue(humanToMove && machineToMove);
+
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            TranspositionTable table = new TranspositionTable(TABLE_SIZE);
+            for (Reversi position : positions) {
+                String expected = new Tree(position, level)
+                        .calculateBestMove().toString();
+                String message = "Level " + level + " at\n" + position;
+
+                assertEquals(expected, new Search(position, SearchMode.MINIMAX,
+                        null).calculateBestMove(level).toString(), message);
+                assertEquals(expected, new Search(position,
+                        SearchMode.ALPHA_BETA, null).calculateBestMove(level)
+                        .toString(), message);
+                assertEquals(expected, new Search(position,
+                        SearchMode.ALPHA_BETA, table).calculateBestMove(level)
+                        .toString(), message);
+            }
+        }
+    }
+}
@@ -108,6 +108,86 @@ public final class Shell {
                                 + " not enough parameter!");
                     }
                     break;
+                case 't':
+                    final int parameterNumberTime = 1;
+                    if (tokens.length == parameterNumberTime + 1) {
+                        String[] parametersForTime = {tokens[1]};
+                        ShellToBoard.setTimeLimit(parametersForTime);
+                    } else {
+                        ShellToBoard.printError("Too much or"
+                                + " not enough parameter!");
+                    }
+                    break;
+                case 'e':
+                    final int maxParameterNumberEvaluator = 1;
+                    if (tokens.length <= maxParameterNumberEvaluator + 1) {
+                        String[] parametersForEvaluator = new String[
+                                tokens.length - 1];
+                        System.arraycopy(tokens, 1, parametersForEvaluator, 0,
+                                parametersForEvaluator.length);
+                        ShellToBoard.setPatternWeights(parametersForEvaluator);
+                    } else {
+                        ShellToBoard.printError("Too much parameters!");
+                    }
+                    break;
+                case 'b':
+                    final int maxParameterNumberBook = 1;
+                    if (tokens.length <= maxParameterNumberBook + 1) {
+                        String[] parametersForBook = new String[
+                                tokens.length - 1];
+                        System.arraycopy(tokens, 1, parametersForBook, 0,
+                                parametersForBook.length);
+                        ShellToBoard.setOpeningBook(parametersForBook);
+                    } else {
+                        ShellToBoard.printError("Too much parameters!");
+                    }
+                    break;
+                case 'o':
+                    final int parameterNumberPonder = 0;
+                    if (tokens.length == parameterNumberPonder + 1) {
+                        ShellToBoard.switchPondering();
+                    } else {
+                        ShellToBoard.printError("Too much parameters!");
+                    }
+                    break;
+                case 'i':
+                    final int parameterNumberStatistics = 0;
+                    if (tokens.length == parameterNumberStatistics + 1) {
+                        ShellToBoard.switchStatistics();
+                    } else {
+                        ShellToBoard.printError("Too much parameters!");
+                    }
+                    break;
+                case 'r':
+                    final int minParameterNumberThreads = 1;
+                    final int maxParameterNumberThreads = 2;
+                    if (tokens.length >= minParameterNumberThreads + 1
+                            && tokens.length <= maxParameterNumberThreads + 1) {
+                        String[] parametersForThreads = new String[
+                                tokens.length - 1];
+                        System.arraycopy(tokens, 1, parametersForThreads, 0,
+                                parametersForThreads.length);
+                        ShellToBoard.setThreads(parametersForThreads);
+                    } else {
+                        ShellToBoard.printError("Too much or"
+                                + " not enough parameters!");
+                    }
+                    break;
+                case 'c':
+                    final int minParameterNumberPerft = 1;
+                    final int maxParameterNumberPerft = 2;
+                    if (tokens.length >= minParameterNumberPerft + 1
+                            && tokens.length <= maxParameterNumberPerft + 1) {
+                        String[] parametersForPerft = new String[
+                                tokens.length - 1];
+                        System.arraycopy(tokens, 1, parametersForPerft, 0,
+                                parametersForPerft.length);
+                        ShellToBoard.perft(parametersForPerft);
+                    } else {
+                        ShellToBoard.printError("Too much or"
+                                + " not enough parameters!");
+                    }
+                    break;
                 case 's':
                     final int parameterNumberSwitch = 0;
                     if (tokens.length == parameterNumberSwitch + 1) {
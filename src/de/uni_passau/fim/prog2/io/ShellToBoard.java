@@ -1,6 +1,12 @@
 package de.uni_passau.fim.prog2.io;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import de.uni_passau.fim.prog2.reversi.Board;
+import de.uni_passau.fim.prog2.reversi.ParallelMode;
 import de.uni_passau.fim.prog2.reversi.Player;
 import de.uni_passau.fim.prog2.reversi.Reversi;
 
@@ -21,6 +27,18 @@ final class ShellToBoard {
      */
     private static Board board = new Reversi(Player.HUMAN);
 
+    /**
+     * Entspricht {@code true}, falls die Maschine während der Bedenkzeit des
+     * Menschen ihre Antworten voraus berechnet.
+     */
+    private static boolean pondering = false;
+
+    /**
+     * Entspricht {@code true}, falls nach jedem Zug der Maschine die
+     * Kennzahlen ihrer Suche ausgegeben werden.
+     */
+    private static boolean statisticsPrinted = false;
+
     private ShellToBoard() { }
 
     /**
@@ -28,10 +46,10 @@ final class ShellToBoard {
      * Spieleinstellungen des alten Spiels erhalten bleiben.
      *
      * @see     Board#getFirstPlayer()
-     * @see     Reversi
+     * @see     Board#newGame(Player)
      */
     static void createNewBoard() {
-        board = new Reversi(board.getFirstPlayer());
+        board = board.newGame(board.getFirstPlayer());
     }
 
     /**
@@ -84,41 +102,212 @@ final class ShellToBoard {
     /**
      * Die Maschine zieht, falls sie ziehen kann und sie tut dies solange, wie
      * sie am Stück ziehen kann. Gibt ebenfalls den Gewinner aus, falls das
-     * Spiel vorbei ist. Gibt auch aus, ob die Maschine aussetzen muss.
+     * Spiel vorbei ist. Gibt auch aus, ob die Maschine aussetzen muss und
+     * ob sie das Spiel exakt zu Ende gerechnet hat, und gegebenenfalls die
+     * Kennzahlen ihrer Suche. Ist danach der Mensch am Zug, beginnt die
+     * Maschine gegebenenfalls mit der Vorausberechnung.
      *
      * @see             #printWinner()
+     * @see             #printExpectedResult()
+     * @see             #printStatistics()
      * @see             #checkMissTurn(Player)
      * @see             Board#gameOver()
      * @see             Board#next()
      * @see             Board#machineMove()
+     * @see             Board#ponder()
      */
     static void machineMove() {
         if (!board.gameOver()) {
             if (board.next() == Player.MACHINE) {
                 board = board.machineMove();
+                printExpectedResult();
+                if (statisticsPrinted) {
+                    printStatistics();
+                }
                 if (board.gameOver()) {
                     printWinner();
                 } else {
                     checkMissTurn(Player.MACHINE);
                     machineMove();
                 }
+            } else if (pondering) {
+                board.ponder();
             }
         }
     }
 
+    /**
+     * Schaltet die Vorausberechnung der Antworten der Maschine während der
+     * Bedenkzeit des Menschen ein oder aus und gibt den neuen Zustand aus.
+     * Ist der Mensch am Zug, beginnt die Vorausberechnung sofort. Beim
+     * Ausschalten wird eine laufende Vorausberechnung abgebrochen.
+     *
+     * @see             Board#ponder()
+     * @see             Board#stopPondering()
+     */
+    static void switchPondering() {
+        pondering = !pondering;
+        System.out.println("Pondering " + (pondering ? "on" : "off"));
+        if (pondering) {
+            machineMove();
+        } else {
+            board.stopPondering();
+        }
+    }
+
+    /**
+     * Schaltet die Ausgabe der Kennzahlen der Suche nach jedem Zug der
+     * Maschine ein oder aus und gibt den neuen Zustand aus. Beim Einschalten
+     * werden die Kennzahlen des letzten Zuges sofort ausgegeben, falls die
+     * Maschine in diesem Spiel schon gezogen hat.
+     *
+     * @see             Board#getLastStatistics()
+     */
+    static void switchStatistics() {
+        statisticsPrinted = !statisticsPrinted;
+        System.out.println("Statistics " + (statisticsPrinted ? "on" : "off"));
+        if (statisticsPrinted && board.getLastStatistics() != null) {
+            printStatistics();
+        }
+    }
+
     /**
      * Ändert das Level des momentanen Spiels. Das Level muss ein positiver
-     * {@code Integer} sein.
+     * {@code Integer} sein. Ein gesetztes Zeitlimit wird dabei aufgehoben,
+     * sodass die Maschine wieder bis zur Tiefe des Levels sucht.
      *
      * @param tokens     Entspricht der Liste der Parameter, hier ist jedoch
      *                   nur ein Parameter, das Level, notwendig.
      * @see              #checkParameters(String[])
      * @see              Board#setLevel(int)
+     * @see              Board#setTimeLimit(int)
      */
     static void setLevel(String[] tokens) {
         Integer[] parameter = checkParameters(tokens);
         if (parameter != null) {
             board.setLevel(parameter[0]);
+            board.setTimeLimit(0);
+        }
+    }
+
+    /**
+     * Ändert die Zeit, die die Maschine für einen Zug suchen darf. Die Zeit
+     * muss ein positiver {@code Integer} in Millisekunden sein.
+     *
+     * @param tokens     Entspricht der Liste der Parameter, hier ist jedoch
+     *                   nur ein Parameter, die Zeit, notwendig.
+     * @see              #checkParameters(String[])
+     * @see              Board#setTimeLimit(int)
+     */
+    static void setTimeLimit(String[] tokens) {
+        Integer[] parameter = checkParameters(tokens);
+        if (parameter != null) {
+            board.setTimeLimit(parameter[0]);
+        }
+    }
+
+    /**
+     * Wählt die Bewertung der Spielsituationen, die die Maschine verwendet.
+     * Ohne Parameter wird die handkodierte Bewertung verwendet, andernfalls
+     * werden die Gewichtstabellen aus der angegebenen Datei geladen.
+     *
+     * @param tokens     Entspricht der Liste der Parameter, hier ist höchstens
+     *                   ein Parameter, die Datei mit den Gewichten, erlaubt.
+     * @see              Board#setPatternWeights(Path)
+     */
+    static void setPatternWeights(String[] tokens) {
+        try {
+            Path file = tokens.length > 0 ? Paths.get(tokens[0]) : null;
+            board.setPatternWeights(file);
+        } catch (IOException | InvalidPathException e) {
+            printError("Cannot load pattern weights from " + tokens[0] + "!");
+        }
+    }
+
+    /**
+     * Wählt das Eröffnungsbuch, dessen Züge die Maschine ohne Suche spielt.
+     * Ohne Parameter wird das Buch entfernt, andernfalls wird es aus der
+     * angegebenen Datei geladen.
+     *
+     * @param tokens     Entspricht der Liste der Parameter, hier ist höchstens
+     *                   ein Parameter, die Datei des Buchs, erlaubt.
+     * @see              Board#setOpeningBook(Path)
+     */
+    static void setOpeningBook(String[] tokens) {
+        try {
+            Path file = tokens.length > 0 ? Paths.get(tokens[0]) : null;
+            board.setOpeningBook(file);
+        } catch (IOException | InvalidPathException e) {
+            printError("Cannot load opening book from " + tokens[0] + "!");
+        }
+    }
+
+    /**
+     * Setzt die Anzahl an Threads, auf die die Suche der Maschine verteilt
+     * wird, und optional das Verfahren der Verteilung. Die Anzahl muss ein
+     * positiver {@code Integer} sein. Das Verfahren ist "smp" für Lazy SMP,
+     * "split" für die Verteilung der Züge der Ausgangsspielsituation oder
+     * "det" für deren deterministischen Modus. Ohne Verfahren bleibt das
+     * bisherige erhalten.
+     *
+     * @param tokens     Entspricht der Liste der Parameter, hier die Anzahl
+     *                   der Threads und optional das Verfahren.
+     * @see              #checkParameters(String[])
+     * @see              Board#setThreads(int)
+     * @see              Board#setParallelMode(ParallelMode)
+     * @see              Board#setDeterministic(boolean)
+     */
+    static void setThreads(String[] tokens) {
+        Integer[] parameters = checkParameters(new String[] {tokens[0]});
+        if (parameters == null) {
+            return;
+        }
+        if (tokens.length > 1) {
+            switch (tokens[1].toLowerCase()) {
+            case "smp":
+                board.setParallelMode(ParallelMode.LAZY_SMP);
+                board.setDeterministic(false);
+                break;
+            case "split":
+                board.setParallelMode(ParallelMode.ROOT_SPLIT);
+                board.setDeterministic(false);
+                break;
+            case "det":
+                board.setParallelMode(ParallelMode.ROOT_SPLIT);
+                board.setDeterministic(true);
+                break;
+            default:
+                printError("Unknown parallel mode " + tokens[1] + "!");
+                return;
+            }
+        }
+        board.setThreads(parameters[0]);
+    }
+
+    /**
+     * Zählt alle Spielsituationen, die die angegebene Anzahl an Zügen vom
+     * momentanen Spielfeld entfernt liegen, und gibt die Anzahl, die Dauer
+     * und die gezählten Spielsituationen pro Sekunde aus. Die Anzahl an
+     * Zügen und die optionale Anzahl an Threads müssen positive
+     * {@code Integer} sein.
+     *
+     * @param tokens     Entspricht der Liste der Parameter, hier die Anzahl
+     *                   der Züge und optional die Anzahl an Threads, auf
+     *                   die die Züge des momentanen Spielfelds verteilt
+     *                   werden.
+     * @see              #checkParameters(String[])
+     * @see              Board#perft(int, int)
+     */
+    static void perft(String[] tokens) {
+        Integer[] parameters = checkParameters(tokens);
+        if (parameters != null) {
+            int threads = parameters.length > 1 ? parameters[1] : 1;
+            long start = System.nanoTime();
+            long nodes = board.perft(parameters[0], threads);
+            long nanos = Math.max(1, System.nanoTime() - start);
+            System.out.printf("Perft %d: %d nodes in %d ms (%.0f nodes/s)%n",
+                    parameters[0], nodes, nanos / 1_000_000L,
+                    nodes * 1e9 / nanos);
         }
     }
 
@@ -127,13 +316,13 @@ final class ShellToBoard {
      * Spieleinstellungen, das Level, erhalten bleiben.
      *
      * @see     Board#getFirstPlayer()
-     * @see     Reversi
+     * @see     Board#newGame(Player)
      */
     static void switchPlayerOrder() {
         if (board.getFirstPlayer() == Player.HUMAN) {
-            board = new Reversi(Player.MACHINE);
+            board = board.newGame(Player.MACHINE);
         } else {
-            board = new Reversi(Player.HUMAN);
+            board = board.newGame(Player.HUMAN);
         }
     }
 
@@ -159,6 +348,18 @@ final class ShellToBoard {
                 "n: creates a new game",
                 "m <integer x> <integer y>: sets stone to row x, col y",
                 "l <integer x>: sets the level to x",
+                "t <integer x>: lets the machine think x milliseconds per move",
+                "e [file]: evaluates with the pattern weights in file,"
+                        + " or with the default evaluation",
+                "b [file]: plays the moves of the opening book in file,"
+                        + " or always searches",
+                "o: switches pondering during the human's turn on or off",
+                "i: switches printing the search statistics after each"
+                        + " machine move on or off",
+                "r <integer x> [smp|split|det]: searches on x threads, with"
+                        + " Lazy SMP, split root moves or deterministic split",
+                "c <integer x> [integer y]: counts the positions x moves ahead"
+                        + " (perft), split on y threads",
                 "s: switches the player order",
                 "p: prints the current board",
                 "The board is always square with the size: " + Board.SIZE,
@@ -226,6 +427,43 @@ final class ShellToBoard {
         }
     }
 
+    /**
+     * Gibt die exakte Differenz der Steine oder den Sieger am Ende des
+     * Spiels aus, falls die Maschine ihren letzten Zug durch Rechnen bis zum
+     * Ende des Spiels bestimmt hat.
+     *
+     * @see                     Board#getExpectedDiscDifferential()
+     * @see                     Board#getExpectedOutcome()
+     */
+    private static void printExpectedResult() {
+        Integer differential = board.getExpectedDiscDifferential();
+        if (differential != null) {
+            System.out.printf("Machine solved the endgame: perfect play ends"
+                    + " with a disc differential of %+d%n", differential);
+        } else if (board.getExpectedOutcome() != null) {
+            int outcome = board.getExpectedOutcome();
+            String result;
+            if (outcome > 0) {
+                result = "a machine win";
+            } else if (outcome < 0) {
+                result = "a human win";
+            } else {
+                result = "a tie";
+            }
+            System.out.println("Machine solved the endgame: perfect play ends"
+                    + " in " + result);
+        }
+    }
+
+    /**
+     * Gibt die Kennzahlen der Suche des letzten Zuges der Maschine aus.
+     *
+     * @see                     Board#getLastStatistics()
+     */
+    private static void printStatistics() {
+        System.out.println(board.getLastStatistics());
+    }
+
     /**
      * Prüft, ob ein Spieler aussetzen muss.
      *
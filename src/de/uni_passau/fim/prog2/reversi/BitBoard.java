@@ -0,0 +1,452 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code BitBoard} ist eine Utilityklasse, die Spielfelder als zwei 64-Bit
+ * Masken, eine pro {@code Player}, verarbeitet. Das Feld in der Zeile
+ * {@code row} und der Spalte {@code col} entspricht dabei dem Bit mit dem
+ * Index {@code (row - 1) * Board.SIZE + (col - 1)}. Züge, das Umdrehen von
+ * Steinen und das Zählen von Steinen werden über Shifts und Popcounts statt
+ * über einzelne Felder berechnet. Die Klasse setzt ein Spielbrett der Größe
+ * 8 x 8 voraus.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class BitBoard {
+
+    /**
+     * Entspricht allen Feldern außer denen der ersten Spalte. Wird benötigt,
+     * damit Shifts nach Osten nicht in die nächste Zeile überlaufen.
+     */
+    private static final long NOT_FIRST_COL = 0xfefefefefefefefeL;
+
+    /**
+     * Entspricht allen Feldern außer denen der letzten Spalte. Wird benötigt,
+     * damit Shifts nach Westen nicht in die vorherige Zeile überlaufen.
+     */
+    private static final long NOT_LAST_COL = 0x7f7f7f7f7f7f7f7fL;
+
+    /**
+     * Entspricht allen Feldern außer denen der ersten und letzten Spalte.
+     * Gegnerische Steine auf diesen Spalten können bei waagrechten und
+     * diagonalen Linien nie umgedreht werden, sodass nach einer Maskierung
+     * mit diesem Wert kein Überlauf in eine andere Zeile mehr möglich ist.
+     */
+    private static final long INNER_COLS = NOT_FIRST_COL & NOT_LAST_COL;
+
+    /**
+     * Entspricht der max Anzahl an gegnerischen Steinen, die in einer Linie
+     * zwischen zwei eigenen Steinen liegen können.
+     */
+    private static final int MAX_LINE = 6;
+
+    /**
+     * Entspricht den Feldern der ersten und letzten Spalte.
+     */
+    private static final long OUTER_COLS = ~INNER_COLS;
+
+    /**
+     * Entspricht den Feldern der ersten und letzten Zeile.
+     */
+    private static final long OUTER_ROWS = 0xff000000000000ffL;
+
+    /**
+     * Entspricht dem ersten Feld jeder Zeile. Wird benötigt, um volle
+     * Zeilen mit einer Multiplikation auf die ganze Zeile auszuweiten.
+     */
+    private static final long FIRST_COL = 0x0101010101010101L;
+
+    /**
+     * Entspricht den Feldern der ersten Zeile.
+     */
+    private static final long FIRST_ROW = 0xffL;
+
+    /**
+     * Entspricht der Anzahl an Symmetrien des Spielbretts, also den
+     * Spiegelungen und Drehungen, die die Regeln nicht verändern.
+     *
+     * @see #transform(long, int)
+     */
+    static final int NUMBER_OF_SYMMETRIES = 8;
+
+    /**
+     * Entspricht den Feldern jeder Diagonale von links oben nach rechts
+     * unten, indiziert nach {@code row - col + Board.SIZE - 1}.
+     */
+    private static final long[] DIAGONALS = new long[2 * Board.SIZE - 1];
+
+    /**
+     * Entspricht den Feldern jeder Diagonale von rechts oben nach links
+     * unten, indiziert nach {@code row + col}.
+     */
+    private static final long[] ANTI_DIAGONALS = new long[2 * Board.SIZE - 1];
+
+    /**
+     * Entspricht der Anzahl an Richtungen, in die geshiftet werden kann.
+     */
+    static final int NUMBER_OF_DIRECTIONS = Direction.values().length;
+
+    /**
+     * Entspricht pro Richtung der Verschiebung des Bitindex bei einem
+     * Schritt, wobei die Reihenfolge der von {@code Direction} entspricht.
+     */
+    private static final int[] SHIFTS = new int[NUMBER_OF_DIRECTIONS];
+
+    /**
+     * Entspricht pro Richtung der Maske, die nach einem Shift angewendet
+     * wird, um Überläufe über den Rand des Spielbretts zu entfernen.
+     */
+    private static final long[] MASKS = new long[NUMBER_OF_DIRECTIONS];
+
+    static {
+        assert Board.SIZE == 8 : "Bitboards are only for 8x8 possible";
+
+        for (Direction direction : Direction.values()) {
+            int index = direction.ordinal();
+            SHIFTS[index] = direction.getY() * Board.SIZE + direction.getX();
+            if (direction.getX() > 0) {
+                MASKS[index] = NOT_FIRST_COL;
+            } else if (direction.getX() < 0) {
+                MASKS[index] = NOT_LAST_COL;
+            } else {
+                MASKS[index] = -1L;
+            }
+        }
+        for (int square = 0; square < Board.SIZE * Board.SIZE; square++) {
+            int row = square / Board.SIZE;
+            int col = square % Board.SIZE;
+            DIAGONALS[row - col + Board.SIZE - 1] |= 1L << square;
+            ANTI_DIAGONALS[row + col] |= 1L << square;
+        }
+    }
+
+    private BitBoard() { }
+
+    /**
+     * Gibt den Bitindex des Feldes in der Zeile {@code row} und der Spalte
+     * {@code col} zurück.
+     *
+     * @param row       Entspricht der Zeile des Feldes.
+     * @param col       Entspricht der Spalte des Feldes.
+     * @return          Entspricht dem Bitindex des Feldes.
+     */
+    static int square(int row, int col) {
+        assert row > 0 && row <= Board.SIZE : "Row is not positive or to big!";
+        assert col > 0 && col <= Board.SIZE : "Col is not positive or to big!";
+
+        return (row - 1) * Board.SIZE + (col - 1);
+    }
+
+    /**
+     * Bildet ein Feld auf das Feld ab, auf dem es nach einer Symmetrie des
+     * Spielbretts liegt. Das erste Bit der Symmetrie spiegelt die Spalten,
+     * das zweite die Zeilen und das dritte vertauscht danach Zeile und
+     * Spalte.
+     *
+     * @param square        Entspricht dem Bitindex des Feldes.
+     * @param symmetry      Entspricht der Symmetrie zwischen {@code 0} und
+     *                      {@link #NUMBER_OF_SYMMETRIES}.
+     * @return              Gibt den Bitindex des abgebildeten Feldes zurück.
+     * @see                 #transform(long, int)
+     */
+    static int transformSquare(int square, int symmetry) {
+        int row = square / Board.SIZE;
+        int col = square % Board.SIZE;
+        if ((symmetry & 1) != 0) {
+            col = Board.SIZE - 1 - col;
+        }
+        if ((symmetry & 2) != 0) {
+            row = Board.SIZE - 1 - row;
+        }
+        if ((symmetry & 4) != 0) {
+            int tmp = row;
+            row = col;
+            col = tmp;
+        }
+        return row * Board.SIZE + col;
+    }
+
+    /**
+     * Bildet alle gesetzten Bits wie {@link #transformSquare(int, int)} ab,
+     * aber mit wenigen Shifts für das ganze Spielbrett auf einmal.
+     *
+     * @param bits          Entspricht den abzubildenden Feldern.
+     * @param symmetry      Entspricht der Symmetrie zwischen {@code 0} und
+     *                      {@link #NUMBER_OF_SYMMETRIES}.
+     * @return              Gibt die abgebildeten Felder zurück.
+     */
+    static long transform(long bits, int symmetry) {
+        long x = bits;
+        if ((symmetry & 1) != 0) {
+            x = (x >>> 1 & 0x5555555555555555L)
+                    | (x & 0x5555555555555555L) << 1;
+            x = (x >>> 2 & 0x3333333333333333L)
+                    | (x & 0x3333333333333333L) << 2;
+            x = (x >>> 4 & 0x0f0f0f0f0f0f0f0fL)
+                    | (x & 0x0f0f0f0f0f0f0f0fL) << 4;
+        }
+        if ((symmetry & 2) != 0) {
+            x = Long.reverseBytes(x);
+        }
+        if ((symmetry & 4) != 0) {
+            x = transpose(x);
+        }
+        return x;
+    }
+
+    /**
+     * Vertauscht Zeilen und Spalten aller gesetzten Bits, spiegelt das
+     * Spielbrett also an der Diagonale durch das erste Feld.
+     *
+     * @param bits          Entspricht den zu spiegelnden Feldern.
+     * @return              Gibt die gespiegelten Felder zurück.
+     */
+    static long transpose(long bits) {
+        long x = bits;
+        long t = 0x0f0f0f0f00000000L & (x ^ x << 28);
+        x ^= t ^ t >>> 28;
+        t = 0x3333000033330000L & (x ^ x << 14);
+        x ^= t ^ t >>> 14;
+        t = 0x5500550055005500L & (x ^ x << 7);
+        x ^= t ^ t >>> 7;
+        return x;
+    }
+
+    /**
+     * Verschiebt alle gesetzten Bits um einen Schritt in die Richtung
+     * {@code direction}, wobei Bits, die das Spielbrett verlassen,
+     * wegfallen.
+     *
+     * @param bits          Entspricht den zu verschiebenden Feldern.
+     * @param direction     Entspricht dem Index der Richtung nach
+     *                      {@link Direction#ordinal()}.
+     * @return              Gibt die verschobenen Felder zurück.
+     */
+    static long shift(long bits, int direction) {
+        int shift = SHIFTS[direction];
+        if (shift > 0) {
+            return (bits << shift) & MASKS[direction];
+        } else {
+            return (bits >>> -shift) & MASKS[direction];
+        }
+    }
+
+    /**
+     * Berechnet alle Steine des Gegners, die umgedreht werden, falls der
+     * Spieler einen Stein auf das leere Feld {@code square} legt. Der Zug ist
+     * genau dann legal, wenn mindestens ein Stein umgedreht wird.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @param square        Entspricht dem Bitindex des leeren Feldes.
+     * @return              Gibt die umzudrehenden Steine zurück. Falls
+     *                      {@code 0} zurückgegeben wird, ist der Zug nicht
+     *                      legal.
+     */
+    static long flips(long own, long enemy, int square) {
+        assert ((own | enemy) & (1L << square)) == 0 : "Slot is not empty!";
+
+        long move = 1L << square;
+        long inner = enemy & INNER_COLS;
+        return flipsUp(move, own, inner, 1)
+                | flipsDown(move, own, inner, 1)
+                | flipsUp(move, own, enemy, 8)
+                | flipsDown(move, own, enemy, 8)
+                | flipsUp(move, own, inner, 7)
+                | flipsDown(move, own, inner, 7)
+                | flipsUp(move, own, inner, 9)
+                | flipsDown(move, own, inner, 9);
+    }
+
+    /**
+     * Berechnet die umzudrehenden Steine in einer Richtung, in der der
+     * Bitindex steigt. Die gegnerischen Steine werden über eine feste
+     * Anzahl an Shifts verlängert, ohne auf das Ende der Linie zu prüfen.
+     *
+     * @param move          Entspricht dem Feld, auf das gezogen wird.
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners, die in dieser
+     *                      Richtung umgedreht werden können.
+     * @param shift         Entspricht der Verschiebung des Bitindex bei
+     *                      einem Schritt.
+     * @return              Gibt die umzudrehenden Steine zurück.
+     */
+    private static long flipsUp(long move, long own, long enemy, int shift) {
+        long line = (move << shift) & enemy;
+        for (int i = 1; i < MAX_LINE; i++) {
+            line |= (line << shift) & enemy;
+        }
+        return ((line << shift) & own) != 0 ? line : 0;
+    }
+
+    /**
+     * Berechnet die umzudrehenden Steine in einer Richtung, in der der
+     * Bitindex sinkt.
+     *
+     * @param move          Entspricht dem Feld, auf das gezogen wird.
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners, die in dieser
+     *                      Richtung umgedreht werden können.
+     * @param shift         Entspricht der Verschiebung des Bitindex bei
+     *                      einem Schritt.
+     * @return              Gibt die umzudrehenden Steine zurück.
+     * @see                 #flipsUp(long, long, long, int)
+     */
+    private static long flipsDown(long move, long own, long enemy,
+                                  int shift) {
+        long line = (move >>> shift) & enemy;
+        for (int i = 1; i < MAX_LINE; i++) {
+            line |= (line >>> shift) & enemy;
+        }
+        return ((line >>> shift) & own) != 0 ? line : 0;
+    }
+
+    /**
+     * Zählt für alle Steine zusammen, wie viele leere Felder an sie
+     * anliegen, wobei ein leeres Feld pro anliegendem Stein gezählt wird.
+     * Dazu werden die leeren Felder in jede Richtung verschoben und mit den
+     * Steinen geschnitten, statt die Nachbarn jedes Steins einzeln zu
+     * prüfen.
+     *
+     * @param discs         Entspricht den Steinen, deren Nachbarn gezählt
+     *                      werden.
+     * @param empty         Entspricht den leeren Feldern.
+     * @return              Gibt die Anzahl der anliegenden leeren Felder
+     *                      summiert über alle Steine zurück.
+     */
+    static int countEmptyNeighbours(long discs, long empty) {
+        int counter = 0;
+        for (int direction = 0; direction < NUMBER_OF_DIRECTIONS;
+                direction++) {
+            counter += Long.bitCount(discs & shift(empty, direction));
+        }
+        return counter;
+    }
+
+    /**
+     * Berechnet die stabilen Steine eines Spielers, also Steine, die bis zum
+     * Ende des Spiels nicht mehr umgedreht werden können. Ein Stein ist
+     * stabil, falls er auf jeder der vier Achsen entweder in einer vollen
+     * Linie liegt, am Rand liegt oder neben einem stabilen eigenen Stein
+     * liegt. Ausgehend von den Ecken werden so Kanten und volle Linien in
+     * wenigen Durchläufen über das ganze Spielbrett auf einmal erweitert.
+     * Das Ergebnis ist eine untere Schranke, da nicht jeder stabile Stein
+     * erkannt wird.
+     *
+     * @param own           Entspricht den Steinen des Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt die stabilen Steine des Spielers zurück.
+     */
+    static long stableDiscs(long own, long enemy) {
+        long occupied = own | enemy;
+
+        long rows = occupied & occupied >>> 4;
+        rows &= rows >>> 2;
+        rows &= rows >>> 1;
+        long fullRows = (rows & FIRST_COL) * FIRST_ROW;
+
+        long cols = occupied & occupied >>> 32;
+        cols &= cols >>> 16;
+        cols &= cols >>> 8;
+        long fullCols = (cols & FIRST_ROW) * FIRST_COL;
+
+        long fullDiagonals = 0;
+        long fullAntiDiagonals = 0;
+        for (int i = 0; i < DIAGONALS.length; i++) {
+            if ((occupied & DIAGONALS[i]) == DIAGONALS[i]) {
+                fullDiagonals |= DIAGONALS[i];
+            }
+            if ((occupied & ANTI_DIAGONALS[i]) == ANTI_DIAGONALS[i]) {
+                fullAntiDiagonals |= ANTI_DIAGONALS[i];
+            }
+        }
+
+        long edges = OUTER_COLS | OUTER_ROWS;
+        long horizontal = own & (fullRows | OUTER_COLS);
+        long vertical = own & (fullCols | OUTER_ROWS);
+        long diagonal = own & (fullDiagonals | edges);
+        long antiDiagonal = own & (fullAntiDiagonals | edges);
+
+        long stable = 0;
+        long next = horizontal & vertical & diagonal & antiDiagonal;
+        while (next != stable) {
+            stable = next;
+            next = stable
+                    | (horizontal | (stable << 1 & NOT_FIRST_COL)
+                            | (stable >>> 1 & NOT_LAST_COL))
+                    & (vertical | stable << 8 | stable >>> 8)
+                    & (diagonal | (stable << 9 & NOT_FIRST_COL)
+                            | (stable >>> 9 & NOT_LAST_COL))
+                    & (antiDiagonal | (stable << 7 & NOT_LAST_COL)
+                            | (stable >>> 7 & NOT_FIRST_COL))
+                    & own;
+        }
+        return stable;
+    }
+
+    /**
+     * Berechnet in einem Durchlauf alle legalen Züge eines Spielers, ohne
+     * Objekte anzulegen. Dazu werden pro Richtung die gegnerischen Steine,
+     * die an eigene Steine anschließen, schrittweise verlängert. Ein leeres
+     * Feld am Ende einer solchen Kette ist ein legaler Zug.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt alle Felder zurück, auf die der Spieler
+     *                      legal ziehen kann.
+     */
+    static long legalMoves(long own, long enemy) {
+        long empty = ~(own | enemy);
+        long inner = enemy & INNER_COLS;
+        return movesUp(own, inner, empty, 1)
+                | movesDown(own, inner, empty, 1)
+                | movesUp(own, enemy, empty, 8)
+                | movesDown(own, enemy, empty, 8)
+                | movesUp(own, inner, empty, 7)
+                | movesDown(own, inner, empty, 7)
+                | movesUp(own, inner, empty, 9)
+                | movesDown(own, inner, empty, 9);
+    }
+
+    /**
+     * Berechnet die legalen Züge in einer Richtung, in der der Bitindex
+     * steigt.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners, die in dieser
+     *                      Richtung umgedreht werden können.
+     * @param empty         Entspricht den leeren Feldern.
+     * @param shift         Entspricht der Verschiebung des Bitindex bei
+     *                      einem Schritt.
+     * @return              Gibt die legalen Züge in dieser Richtung zurück.
+     */
+    private static long movesUp(long own, long enemy, long empty, int shift) {
+        long line = (own << shift) & enemy;
+        for (int i = 1; i < MAX_LINE; i++) {
+            line |= (line << shift) & enemy;
+        }
+        return (line << shift) & empty;
+    }
+
+    /**
+     * Berechnet die legalen Züge in einer Richtung, in der der Bitindex
+     * sinkt.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners, die in dieser
+     *                      Richtung umgedreht werden können.
+     * @param empty         Entspricht den leeren Feldern.
+     * @param shift         Entspricht der Verschiebung des Bitindex bei
+     *                      einem Schritt.
+     * @return              Gibt die legalen Züge in dieser Richtung zurück.
+     * @see                 #movesUp(long, long, long, int)
+     */
+    private static long movesDown(long own, long enemy, long empty,
+                                  int shift) {
+        long line = (own >>> shift) & enemy;
+        for (int i = 1; i < MAX_LINE; i++) {
+            line |= (line >>> shift) & enemy;
+        }
+        return (line >>> shift) & empty;
+    }
+}
@@ -1,9 +1,21 @@
 package de.uni_passau.fim.prog2.reversi;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * Interface for a Reversi game, also known as Othello.
  *
  * A human plays against the machine.
+ *
+ * Thread safety: a game is not thread-safe. One instance must never be used
+ * by several threads at once, not even with read-only calls such as
+ * {@link #next()} or {@link #gameOver()}, because they compute the next
+ * player and cache the legal moves lazily. A game, its copies and the games
+ * started with {@link #newGame(Player)} share the settings and the state of
+ * the machine, so they must be used by one thread at a time as well. Games
+ * created with their own constructor share nothing and may be played by
+ * different threads at the same time.
  */
 public interface Board extends Cloneable {
 
@@ -20,6 +32,20 @@ public interface Board extends Cloneable {
      */
     Player getFirstPlayer();
 
+    /**
+     * Starts a new game that keeps all settings of this game, such as the
+     * level and the time limit. Settings of one game never affect other games
+     * created with their own constructor, so many games can be played at the
+     * same time. The new game shares the machine with this game, so both must
+     * be used by one thread at a time, see the thread safety notes above.
+     *
+     * @param firstPlayer The player who makes the initial move of the new
+     *        game.
+     * @return The new game.
+     * @throws IllegalArgumentException If {@code firstPlayer} is {@code null}.
+     */
+    Board newGame(Player firstPlayer);
+
     /**
      * Gets the player who owns the next game turn.
      *
@@ -64,6 +90,171 @@ public interface Board extends Cloneable {
      */
     void setLevel(int level);
 
+    /**
+     * Sets the time the machine may think about each of its moves. While a
+     * limit is set, the machine searches deeper and deeper until the time is
+     * up and plays the best move of the deepest completed search, instead of
+     * searching to the depth given by the level.
+     *
+     * @param milliseconds The time per move in milliseconds, or {@code 0} to
+     *        search to the depth of the level again.
+     * @throws IllegalArgumentException If {@code milliseconds} is negative.
+     */
+    void setTimeLimit(int milliseconds);
+
+    /**
+     * Sets the memory the machine may use to remember positions it has
+     * already searched. The memory stays bounded by this size no matter how
+     * long the machine plays.
+     *
+     * @param megabytes The size of the memory in megabytes, must be at least
+     *        1.
+     * @throws IllegalArgumentException If {@code megabytes} is not positive.
+     */
+    void setTableSize(int megabytes);
+
+    /**
+     * Sets the number of threads the machine may use to search for its
+     * moves. With more than one thread the moves available to the machine
+     * are searched in parallel. At a fixed level the chosen move does not
+     * depend on the number of threads. With a time limit more threads may
+     * reach a greater depth and thus choose a different move.
+     *
+     * @param threads The number of threads, must be at least 1.
+     * @throws IllegalArgumentException If {@code threads} is not positive.
+     */
+    void setThreads(int threads);
+
+    /**
+     * Sets how the search of the machine is distributed onto its threads.
+     * {@link ParallelMode#LAZY_SMP} lets all threads search the whole game
+     * tree and is the default. {@link ParallelMode#ROOT_SPLIT} distributes
+     * the moves available to the machine onto the threads.
+     *
+     * @param parallelMode The way the search is distributed.
+     * @throws IllegalArgumentException If {@code parallelMode} is
+     *         {@code null}.
+     * @see #setThreads(int)
+     * @see #setDeterministic(boolean)
+     */
+    void setParallelMode(ParallelMode parallelMode);
+
+    /**
+     * Sets whether the threads of {@link ParallelMode#ROOT_SPLIT} search
+     * independently of each other. In deterministic mode the threads share
+     * neither the best score found so far nor the transposition table, so
+     * the number of searched positions does not depend on the timing of the
+     * threads either. Has no effect on {@link ParallelMode#LAZY_SMP}.
+     *
+     * @param deterministic {@code true} if the threads search independently.
+     */
+    void setDeterministic(boolean deterministic);
+
+    /**
+     * Sets the number of empty squares at or below which the machine stops
+     * using its heuristic and instead calculates the rest of the game
+     * perfectly.
+     *
+     * @param empties The number of empty squares, or {@code 0} to never
+     *        calculate the rest of the game perfectly.
+     * @throws IllegalArgumentException If {@code empties} is negative.
+     */
+    void setEndgameThreshold(int empties);
+
+    /**
+     * Gets the final result the machine calculated for its last move, if it
+     * calculated the rest of the game perfectly for that move.
+     *
+     * @return The number of discs of the machine minus the number of discs of
+     *         the human at the end of the game if both play perfectly, or
+     *         {@code null} if the last move of the machine was chosen by its
+     *         heuristic.
+     */
+    Integer getExpectedDiscDifferential();
+
+    /**
+     * Gets whether the machine wins if both play perfectly, as calculated for
+     * its last move. With a time limit, the machine may only calculate the
+     * winner for a few more empty squares than it solves exactly.
+     *
+     * @return {@code 1} if the machine wins, {@code -1} if the human wins,
+     *         {@code 0} for a tie, or {@code null} if the last move of the
+     *         machine was chosen by its heuristic.
+     */
+    Integer getExpectedOutcome();
+
+    /**
+     * Gets the statistics of the search for the last move of the machine,
+     * such as the number of visited positions, the branching factor per ply,
+     * the hit rate of the transposition table and the time the move took.
+     * The statistics are not changed by later moves.
+     *
+     * @return The statistics, or {@code null} if the machine has not moved
+     *         yet in this game.
+     */
+    SearchStatistics getLastStatistics();
+
+    /**
+     * Lets the machine evaluate positions by looking up board patterns in
+     * weight tables instead of using its hand-written evaluation. The weights
+     * are loaded from a binary file once and are used for all following
+     * games.
+     *
+     * @param file The file with the pattern weights, or {@code null} to return
+     *        to the hand-written evaluation.
+     * @throws IOException If the file cannot be read or does not contain
+     *         pattern weights.
+     */
+    void setPatternWeights(Path file) throws IOException;
+
+    /**
+     * Lets the machine play the moves of an opening book instead of searching
+     * as long as the position is in the book. The book is mapped into memory
+     * and is used for all following games.
+     *
+     * @param file The file of the opening book, or {@code null} to always
+     *        search.
+     * @throws IOException If the file cannot be read or does not contain an
+     *         opening book.
+     */
+    void setOpeningBook(Path file) throws IOException;
+
+    /**
+     * Lets the machine use the think time of the human by computing its
+     * answers to the most likely human moves in a background thread. If the
+     * human then plays one of these moves, the next {@link #machineMove()}
+     * returns the precomputed answer. If the answer is still being computed,
+     * it waits for it; otherwise the running background search is stopped
+     * and the answer to the played move is searched at once, so the machine
+     * move never takes much longer than without pondering. Changing a
+     * setting or starting a new game cancels the background search.
+     * Does nothing if it is not the human's turn.
+     */
+    void ponder();
+
+    /**
+     * Stops the background search started by {@link #ponder()} and waits
+     * until it has ended. Does nothing if no background search is running.
+     */
+    void stopPondering();
+
+    /**
+     * Counts all positions that are a given number of moves away from this
+     * board, also known as perft. A forced pass counts as a move, and a
+     * position in which the game ends early counts once. From the initial
+     * position, the counts for the depths 1 to 9 are 4, 12, 56, 244, 1396,
+     * 8200, 55092, 390216 and 3005288. With more than one thread, the moves
+     * of this board are counted in parallel. The threads of the machine set
+     * with {@link #setThreads(int)} are not used.
+     *
+     * @param depth The number of moves, must not be negative.
+     * @param threads The number of threads, must be at least 1.
+     * @return The number of positions.
+     * @throws IllegalArgumentException If {@code depth} is negative or
+     *         {@code threads} is not positive.
+     */
+    long perft(int depth, int threads);
+
     /**
      * Checks if the game is over. Either one player has won or there is a tie,
      * i.e., no player can perform a move any more.
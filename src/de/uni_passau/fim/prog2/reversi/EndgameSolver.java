@@ -0,0 +1,588 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code EndgameSolver} berechnet gegen Ende des Spiels den perfekten Zug,
+ * indem alle Züge bis zum Ende des Spiels durchsucht werden. Bewertet wird
+ * statt mit {@code Score} mit der exakten Differenz der Steine am Ende des
+ * Spiels. Die Suche arbeitet direkt auf den Bitmasken der Steine, wobei die
+ * Steine stets aus Sicht des ziehenden Spielers übergeben werden.
+ *
+ * <p>Züge werden zuerst nach der Mobilität des Gegners sortiert, sodass
+ * Züge, die dem Gegner wenige Antworten lassen, zuerst durchsucht werden.
+ * Bei gleicher Mobilität werden Züge in Quadranten mit einer ungeraden
+ * Anzahl an leeren Feldern bevorzugt. Die letzten
+ * {@link #SHALLOW_EMPTIES} leeren Felder werden ohne Zuggenerator direkt
+ * über die leeren Felder durchsucht. Mit vielen leeren Feldern werden die
+ * Schranken bereits gelöster Spielsituationen in einer eigenen Tabelle
+ * gespeichert, die die Steine selbst statt eines Hashs vergleicht. Kann
+ * der Gegner wegen seiner stabilen Steine die Differenz {@code alpha} sicher
+ * verhindern, wird die Suche ohne Zuggenerator abgebrochen.
+ *
+ * <p>Statt der exakten Differenz kann auch nur berechnet werden, ob der
+ * ziehende Spieler gewinnt, verliert oder unentschieden spielt. Dazu wird
+ * mit dem Fenster von {@code -1} bis {@code 1} um {@code 0} gesucht, wodurch
+ * deutlich mehr Teilbäume abgeschnitten werden und einige leere Felder mehr
+ * in derselben Zeit gelöst werden können.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class EndgameSolver {
+
+    /**
+     * Entspricht einem Score, der außerhalb aller möglichen Differenzen der
+     * Steine liegt.
+     */
+    private static final int INFINITY = Board.SIZE * Board.SIZE + 1;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der die Züge ohne
+     * Zuggenerator und ohne Sortierung nach Mobilität durchsucht werden.
+     */
+    static final int SHALLOW_EMPTIES = 4;
+
+    /**
+     * Entspricht den vier Quadranten des Spielbretts, nach denen die Parität
+     * der leeren Felder berechnet wird.
+     */
+    private static final long[] QUADRANTS = {0x000000000f0f0f0fL,
+            0x00000000f0f0f0f0L, 0x0f0f0f0f00000000L, 0xf0f0f0f000000000L};
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der Spielsituationen in
+     * der Tabelle gespeichert werden.
+     */
+    private static final int TABLE_EMPTIES = 7;
+
+    /**
+     * Entspricht dem Zweierlogarithmus der Anzahl an Einträgen der Tabelle.
+     */
+    private static final int TABLE_BITS = 18;
+
+    /**
+     * Entspricht dem Bitindex, der gespeichert wird, falls kein bester Zug
+     * bekannt ist.
+     */
+    private static final int NO_MOVE = Board.SIZE * Board.SIZE;
+
+    /**
+     * Entspricht der max Anzahl an Zügen seit der Ausgangsspielsituation,
+     * wobei auch Aussetzen mitgezählt wird.
+     */
+    private static final int MAX_PLY = 2 * Board.SIZE * Board.SIZE;
+
+    /**
+     * Entspricht dem Ausgangsspielfeld der Suche.
+     */
+    private final Reversi root;
+
+    /**
+     * Entspricht pro Tiefe den Zügen, die sortiert durchsucht werden.
+     */
+    private final int[][] moveBuffer
+            = new int[MAX_PLY][Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht pro Tiefe den Sortierschlüsseln der Züge aus
+     * {@link #moveBuffer}, wobei kleinere Schlüssel zuerst durchsucht
+     * werden.
+     */
+    private final int[][] keyBuffer
+            = new int[MAX_PLY][Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht pro Eintrag der Tabelle den Steinen des ziehenden Spielers.
+     */
+    private final long[] tableOwn = new long[1 << TABLE_BITS];
+
+    /**
+     * Entspricht pro Eintrag der Tabelle den Steinen des Gegners.
+     */
+    private final long[] tableEnemy = new long[1 << TABLE_BITS];
+
+    /**
+     * Entspricht pro Eintrag der Tabelle der unteren und der oberen Schranke
+     * der Differenz der Steine und dem besten Zug, gepackt in einen
+     * {@code int}.
+     */
+    private final int[] tableData = new int[1 << TABLE_BITS];
+
+    /**
+     * Entspricht den Kennzahlen der Suche. Spielsituationen mit höchstens
+     * {@link #SHALLOW_EMPTIES} leeren Feldern werden ohne Zählen gelöst und
+     * zählen daher als Blätter.
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Entspricht der exakten Differenz der Steine am Ende des Spiels aus
+     * Sicht des ziehenden Spielers, nachdem {@link #solveExact(long)}
+     * erfolgreich aufgerufen wurde.
+     */
+    private int discDifferential;
+
+    /**
+     * Entspricht {@code 1}, {@code 0} oder {@code -1}, falls der ziehende
+     * Spieler bei perfektem Spiel gewinnt, unentschieden spielt oder
+     * verliert.
+     */
+    private int outcome;
+
+    /**
+     * Entspricht dem Zeitpunkt nach {@link System#nanoTime()}, an dem die
+     * Suche abgebrochen wird.
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    /**
+     * Entspricht {@code true}, falls die Suche abgebrochen wurde, weil die
+     * Zeit abgelaufen ist. Das Ergebnis der Suche ist dann ungültig.
+     */
+    private boolean aborted;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen, die noch durchsucht
+     * werden, bis die Zeit wieder geprüft wird.
+     */
+    private int nodesUntilTimeCheck;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen zwischen zwei Prüfungen, ob
+     * die Zeit abgelaufen ist.
+     */
+    private static final int NODES_PER_TIME_CHECK = 1024;
+
+    /**
+     * Kreiert einen Endspiellöser für das Ausgangsspielfeld, das nicht
+     * vorbei sein darf.
+     *
+     * @param root      Entspricht dem Ausgangsspielfeld.
+     */
+    EndgameSolver(Reversi root) {
+        assert root != null : "The beginning game cannot be undefined!";
+        assert !root.gameOver() : "The game cannot be already over!";
+
+        this.root = root;
+    }
+
+    /**
+     * Berechnet den perfekten Zug für den nächst ziehenden Spieler. Haben
+     * mehrere Züge dieselbe Differenz der Steine, wird der erste Zug in
+     * zeilenweiser Reihenfolge gewählt.
+     *
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Entspricht dem besten Zug, ausgeführt auf einem
+     *                      Klon, oder {@code null}, falls die Zeit abgelaufen
+     *                      ist.
+     * @see                 #solve(long, long, int, int, int, boolean, int)
+     */
+    Reversi solveExact(long deadline) {
+        Player player = root.next();
+        long own = root.getDiscs(player);
+        long enemy = root.getDiscs(player.inverse());
+        int empties = Long.bitCount(~(own | enemy));
+
+        startSearch(deadline);
+        statistics.countNode(0);
+        int numberOfMoves = orderMoves(own, enemy,
+                BitBoard.legalMoves(own, enemy), 0, NO_MOVE);
+        int bestMove = -1;
+        int bestScore = -INFINITY;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int square = moveBuffer[0][i];
+            int alpha = bestScore;
+            if (bestMove >= 0 && square < bestMove) {
+                alpha = bestScore - 1;
+            }
+
+            long flipped = BitBoard.flips(own, enemy, square);
+            int score = -solve(enemy & ~flipped, own | flipped | 1L << square,
+                    -INFINITY, -alpha, empties - 1, false, 1);
+            if (aborted) {
+                return null;
+            }
+            if (bestMove < 0 || score > bestScore
+                    || (score == bestScore && square < bestMove)) {
+                bestScore = score;
+                bestMove = square;
+            }
+        }
+        discDifferential = bestScore;
+        outcome = Integer.signum(bestScore);
+        return root.moveForNextPlayer(bestMove);
+    }
+
+    /**
+     * Berechnet nur, ob der nächst ziehende Spieler bei perfektem Spiel
+     * gewinnt, verliert oder unentschieden spielt, und gibt einen Zug mit
+     * diesem Ergebnis zurück. Jeder Zug wird mit dem Fenster von {@code -1}
+     * bis {@code 1} durchsucht. Haben mehrere Züge dasselbe Ergebnis, wird
+     * der erste Zug in zeilenweiser Reihenfolge gewählt.
+     *
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Entspricht dem besten Zug, ausgeführt auf einem
+     *                      Klon, oder {@code null}, falls die Zeit abgelaufen
+     *                      ist.
+     * @see                 #solve(long, long, int, int, int, boolean, int)
+     */
+    Reversi solveWinLossDraw(long deadline) {
+        Player player = root.next();
+        long own = root.getDiscs(player);
+        long enemy = root.getDiscs(player.inverse());
+        int empties = Long.bitCount(~(own | enemy));
+
+        startSearch(deadline);
+        statistics.countNode(0);
+        int numberOfMoves = orderMoves(own, enemy,
+                BitBoard.legalMoves(own, enemy), 0, NO_MOVE);
+        int bestMove = -1;
+        int bestOutcome = -INFINITY;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int square = moveBuffer[0][i];
+            if (bestOutcome == 1 && square > bestMove) {
+                continue;
+            }
+
+            long flipped = BitBoard.flips(own, enemy, square);
+            int score = -solve(enemy & ~flipped, own | flipped | 1L << square,
+                    -1, 1, empties - 1, false, 1);
+            if (aborted) {
+                return null;
+            }
+            int outcomeOfMove = Integer.signum(score);
+            if (bestMove < 0 || outcomeOfMove > bestOutcome
+                    || (outcomeOfMove == bestOutcome && square < bestMove)) {
+                bestOutcome = outcomeOfMove;
+                bestMove = square;
+            }
+        }
+        outcome = bestOutcome;
+        return root.moveForNextPlayer(bestMove);
+    }
+
+    /**
+     * Gibt zurück, ob der ziehende Spieler bei perfektem Spiel gewinnt,
+     * verliert oder unentschieden spielt.
+     *
+     * @return          Entspricht {@code 1} bei einem Sieg, {@code 0} bei
+     *                  einem Unentschieden und {@code -1} bei einer
+     *                  Niederlage.
+     * @see             #solveExact(long)
+     * @see             #solveWinLossDraw(long)
+     */
+    int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Setzt den Zeitpunkt, an dem die nächste Suche abgebrochen wird.
+     *
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}.
+     */
+    private void startSearch(long deadline) {
+        this.deadline = deadline;
+        aborted = false;
+        nodesUntilTimeCheck = NODES_PER_TIME_CHECK;
+    }
+
+    /**
+     * Gibt die exakte Differenz der Steine am Ende des Spiels bei perfektem
+     * Spiel beider Spieler zurück.
+     *
+     * @return          Entspricht der Anzahl der Steine des ziehenden
+     *                  Spielers abzüglich der Steine des Gegners.
+     * @see             #solveExact(long)
+     */
+    int getDiscDifferential() {
+        return discDifferential;
+    }
+
+    /**
+     * Gibt die Kennzahlen der Suche zurück.
+     *
+     * @return          Entspricht den Kennzahlen.
+     */
+    SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Berechnet die Differenz der Steine am Ende des Spiels aus Sicht des
+     * ziehenden Spielers. Liegt diese außerhalb des Fensters von
+     * {@code alpha} bis {@code beta}, ist nur garantiert, dass der
+     * zurückgegebene Wert ebenfalls außerhalb liegt. Falls die Zeit
+     * abgelaufen ist, wird die Suche abgebrochen und ein ungültiger Wert
+     * zurückgegeben.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @param alpha         Entspricht der Differenz, die der ziehende
+     *                      Spieler bereits sicher erreichen kann.
+     * @param beta          Entspricht der Differenz, die der Gegner bereits
+     *                      sicher erreichen kann.
+     * @param empties       Entspricht der Anzahl der leeren Felder.
+     * @param passed        Entspricht {@code true}, falls der Gegner zuvor
+     *                      aussetzen musste.
+     * @param ply           Entspricht der Anzahl an Zügen seit der
+     *                      Ausgangsspielsituation.
+     * @return              Gibt die Differenz der Steine zurück.
+     */
+    private int solve(long own, long enemy, int alpha, int beta, int empties,
+                      boolean passed, int ply) {
+        statistics.countNode(ply);
+        if (empties <= SHALLOW_EMPTIES) {
+            statistics.countLeaf();
+            return solveShallow(own, enemy, alpha, beta, empties, passed);
+        }
+        if (--nodesUntilTimeCheck <= 0) {
+            nodesUntilTimeCheck = NODES_PER_TIME_CHECK;
+            if (System.nanoTime() >= deadline) {
+                aborted = true;
+            }
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        long legalMoves = BitBoard.legalMoves(own, enemy);
+        if (legalMoves == 0) {
+            if (passed) {
+                statistics.countLeaf();
+                return Long.bitCount(own) - Long.bitCount(enemy);
+            }
+            return -solve(enemy, own, -beta, -alpha, empties, true, ply + 1);
+        }
+
+        int index = -1;
+        int hashMove = NO_MOVE;
+        if (empties >= TABLE_EMPTIES) {
+            index = getTableIndex(own, enemy);
+            boolean hit = tableOwn[index] == own && tableEnemy[index] == enemy;
+            statistics.countTableProbe(hit);
+            if (hit) {
+                int data = tableData[index];
+                int lower = (byte) data;
+                int upper = (byte) (data >> 8);
+                hashMove = data >>> 16;
+                if (lower >= beta || lower == upper) {
+                    return lower;
+                } else if (upper <= alpha) {
+                    return upper;
+                }
+                alpha = Math.max(alpha, lower);
+                beta = Math.min(beta, upper);
+            }
+        }
+
+        if (Board.SIZE * Board.SIZE - 2 * Long.bitCount(enemy) <= alpha) {
+            int upper = Board.SIZE * Board.SIZE
+                    - 2 * Long.bitCount(BitBoard.stableDiscs(enemy, own));
+            if (upper <= alpha) {
+                return upper;
+            }
+        }
+
+        int numberOfMoves = orderMoves(own, enemy, legalMoves, ply, hashMove);
+        int[] moves = moveBuffer[ply];
+        int bestScore = -INFINITY;
+        int bestIndex = 0;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int square = moves[i];
+            long flipped = BitBoard.flips(own, enemy, square);
+            int score = -solve(enemy & ~flipped, own | flipped | 1L << square,
+                    -beta, -Math.max(alpha, bestScore), empties - 1, false,
+                    ply + 1);
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+                if (score >= beta) {
+                    statistics.countCutoff();
+                    break;
+                }
+            }
+        }
+        if (aborted) {
+            return 0;
+        }
+        statistics.countInteriorNode(bestIndex == 0);
+
+        if (index >= 0) {
+            int lower = bestScore > alpha ? bestScore : -INFINITY;
+            int upper = bestScore < beta ? bestScore : INFINITY;
+            tableOwn[index] = own;
+            tableEnemy[index] = enemy;
+            tableData[index] = (lower & 0xff) | (upper & 0xff) << 8
+                    | moves[bestIndex] << 16;
+        }
+        return bestScore;
+    }
+
+    /**
+     * Berechnet den Index einer Spielsituation in der Tabelle.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt den Index des Eintrags zurück.
+     */
+    private static int getTableIndex(long own, long enemy) {
+        long hash = own * 0x9e3779b97f4a7c15L + enemy * 0xc2b2ae3d27d4eb4fL;
+        return (int) (hash >>> (Long.SIZE - TABLE_BITS));
+    }
+
+    /**
+     * Berechnet die Differenz der Steine für die letzten
+     * {@link #SHALLOW_EMPTIES} leeren Felder. Statt die legalen Züge zu
+     * generieren und zu sortieren, wird für jedes leere Feld direkt
+     * geprüft, ob Steine umgedreht werden. Felder in Quadranten mit einer
+     * ungeraden Anzahl an leeren Feldern werden zuerst durchsucht.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @param alpha         Entspricht der Differenz, die der ziehende
+     *                      Spieler bereits sicher erreichen kann.
+     * @param beta          Entspricht der Differenz, die der Gegner bereits
+     *                      sicher erreichen kann.
+     * @param empties       Entspricht der Anzahl der leeren Felder.
+     * @param passed        Entspricht {@code true}, falls der Gegner zuvor
+     *                      aussetzen musste.
+     * @return              Gibt die Differenz der Steine zurück.
+     * @see                 #solveLastEmpty(long, long)
+     */
+    private int solveShallow(long own, long enemy, int alpha, int beta,
+                             int empties, boolean passed) {
+        if (empties == 0) {
+            return Long.bitCount(own) - Long.bitCount(enemy);
+        } else if (empties == 1) {
+            return solveLastEmpty(own, enemy);
+        }
+
+        long empty = ~(own | enemy);
+        long odd = getOddQuadrants(empty);
+        int bestScore = -INFINITY;
+        boolean moved = false;
+        for (int round = 0; round < 2; round++) {
+            long group = round == 0 ? empty & odd : empty & ~odd;
+            for (long bits = group; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                long flipped = BitBoard.flips(own, enemy, square);
+                if (flipped == 0) {
+                    continue;
+                }
+                moved = true;
+                int score = -solveShallow(enemy & ~flipped,
+                        own | flipped | 1L << square, -beta,
+                        -Math.max(alpha, bestScore), empties - 1, false);
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score >= beta) {
+                        return bestScore;
+                    }
+                }
+            }
+        }
+
+        if (!moved) {
+            if (passed) {
+                return Long.bitCount(own) - Long.bitCount(enemy);
+            }
+            return -solveShallow(enemy, own, -beta, -alpha, empties, true);
+        }
+        return bestScore;
+    }
+
+    /**
+     * Berechnet die Differenz der Steine, falls nur noch ein leeres Feld
+     * übrig ist. Kann der ziehende Spieler nicht auf das Feld ziehen, zieht
+     * der Gegner, und kann auch dieser nicht ziehen, ist das Spiel vorbei.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt die Differenz der Steine zurück.
+     */
+    private static int solveLastEmpty(long own, long enemy) {
+        int square = Long.numberOfTrailingZeros(~(own | enemy));
+        long flipped = BitBoard.flips(own, enemy, square);
+        if (flipped != 0) {
+            int numberOfFlipped = Long.bitCount(flipped);
+            return Long.bitCount(own) + 2 * numberOfFlipped + 1
+                    - Long.bitCount(enemy);
+        }
+        flipped = BitBoard.flips(enemy, own, square);
+        if (flipped != 0) {
+            int numberOfFlipped = Long.bitCount(flipped);
+            return Long.bitCount(own) - 2 * numberOfFlipped - 1
+                    - Long.bitCount(enemy);
+        }
+        return Long.bitCount(own) - Long.bitCount(enemy);
+    }
+
+    /**
+     * Sortiert die legalen Züge einer Tiefe aufsteigend nach der Anzahl der
+     * Züge, die der Gegner danach hat. Bei gleicher Anzahl werden Züge in
+     * Quadranten mit einer ungeraden Anzahl an leeren Feldern bevorzugt. Der
+     * beste Zug aus der Tabelle wird immer zuerst durchsucht.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @param legalMoves    Entspricht allen legalen Zügen.
+     * @param ply           Entspricht der Anzahl an Zügen seit der
+     *                      Ausgangsspielsituation.
+     * @param hashMove      Entspricht dem besten Zug aus der Tabelle oder
+     *                      {@link #NO_MOVE}.
+     * @return              Gibt die Anzahl der Züge zurück.
+     */
+    private int orderMoves(long own, long enemy, long legalMoves, int ply,
+                           int hashMove) {
+        int[] moves = moveBuffer[ply];
+        int[] keys = keyBuffer[ply];
+        long odd = getOddQuadrants(~(own | enemy));
+        int numberOfMoves = 0;
+        for (long bits = legalMoves; bits != 0; bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            long move = 1L << square;
+            long flipped = BitBoard.flips(own, enemy, square);
+            int mobility = Long.bitCount(BitBoard.legalMoves(
+                    enemy & ~flipped, own | flipped | move));
+            int key = mobility << 1;
+            if (square == hashMove) {
+                key = -1;
+            } else if ((odd & move) == 0) {
+                key++;
+            }
+
+            int index = numberOfMoves;
+            while (index > 0 && keys[index - 1] > key) {
+                moves[index] = moves[index - 1];
+                keys[index] = keys[index - 1];
+                index--;
+            }
+            moves[index] = square;
+            keys[index] = key;
+            numberOfMoves++;
+        }
+        return numberOfMoves;
+    }
+
+    /**
+     * Gibt alle Felder der Quadranten zurück, die eine ungerade Anzahl an
+     * leeren Feldern besitzen. Wer in einem solchen Quadranten zieht, kann
+     * meist auch den letzten Zug darin machen.
+     *
+     * @param empty         Entspricht den leeren Feldern.
+     * @return              Gibt die Felder dieser Quadranten zurück.
+     */
+    private static long getOddQuadrants(long empty) {
+        long odd = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                odd |= quadrant;
+            }
+        }
+        return odd;
+    }
+}
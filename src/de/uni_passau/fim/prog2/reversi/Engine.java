@@ -0,0 +1,691 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code Engine} enthält die Einstellungen und den Zustand, mit denen die
+ * Maschine ihre Züge berechnet, also Level, Zeitlimit,
+ * Transpositionstabelle, Threads, Bewertung, Eröffnungsbuch und die
+ * Ergebnisse des letzten Zuges. Jedes Spiel besitzt eine eigene
+ * {@code Engine}, die es mit allen seinen Klonen teilt, sodass
+ * Einstellungen eines Spiels keine anderen Spiele verändern. Mit
+ * {@link Reversi#newGame(Player)} übernimmt ein neues Spiel die
+ * {@code Engine} des alten.
+ *
+ * <p>Bis auf {@link #getEvaluator()} sind alle Methoden über die
+ * {@code Engine} synchronisiert. Züge der Maschine und Änderungen der
+ * Einstellungen desselben Spiels laufen daher nacheinander ab, auch wenn
+ * sie aus verschiedenen Threads kommen, während Spiele mit verschiedenen
+ * {@code Engine} Objekten ohne gegenseitige Blockade parallel rechnen.
+ * Gemeinsam verwendet werden nur unveränderliche Objekte wie die Gewichte
+ * von {@code PatternEvaluator} und die Tabellen von {@code Zobrist}. Jede
+ * {@code Engine} belegt eine eigene Transpositionstabelle, deren Größe bei
+ * vielen gleichzeitigen Spielen entsprechend klein gewählt werden sollte.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see Reversi
+ */
+final class Engine {
+
+    /**
+     * Entspricht dem Level, falls keines gesetzt wurde.
+     */
+    private static final int DEFAULT_LEVEL = 3;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in MB, falls diese
+     * nicht gesetzt wurde.
+     */
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der die Maschine das Spiel
+     * exakt zu Ende rechnet, falls diese nicht gesetzt wurde. Ohne Zeitlimit
+     * wird die Lösung nicht abgebrochen, daher bleibt ein exakter Zug bei
+     * dieser Anzahl im Bereich von etwa {@code 100} ms, während er bei
+     * {@code 18} leeren Feldern mehrere Sekunden dauern kann.
+     */
+    private static final int DEFAULT_ENDGAME_THRESHOLD = 14;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern über {@link #endgameThreshold}
+     * hinaus, für die die Maschine mit Zeitlimit noch versucht, nur Sieg,
+     * Niederlage oder Unentschieden zu berechnen.
+     *
+     * @see EndgameSolver#solveWinLossDraw(long)
+     */
+    private static final int WIN_LOSS_DRAW_EMPTIES = 3;
+
+    /**
+     * Entspricht der momentanen Schwierigkeitsstufe der Maschine.
+     */
+    private int level = DEFAULT_LEVEL;
+
+    /**
+     * Entspricht der Zeit in Millisekunden, die die Maschine für einen Zug
+     * suchen darf. Entspricht {@code 0}, falls stattdessen bis zur Tiefe
+     * {@link #level} gesucht wird.
+     */
+    private int timeLimit = 0;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle in MB.
+     */
+    private int tableSize = DEFAULT_TABLE_SIZE;
+
+    /**
+     * Entspricht der Transpositionstabelle, die die Suche der Maschine
+     * verwendet. Behält ihre Einträge über alle Züge eines Spiels, sodass
+     * jede Suche auf den vorherigen aufbaut. Ist {@code null}, solange die
+     * Maschine noch nicht gesucht hat, damit Spiele ohne Suche keinen
+     * Speicher für die Tabelle belegen.
+     *
+     * @see #getTable()
+     */
+    private TranspositionTable table;
+
+    /**
+     * Entspricht der Bewertung der Spielsituationen, die die Suche der
+     * Maschine verwendet. Ist {@code volatile}, da die Threads der Suche sie
+     * ohne Lock lesen, während der aufrufende Thread den Lock hält.
+     */
+    private volatile Evaluator evaluator = ScoreEvaluator.INSTANCE;
+
+    /**
+     * Entspricht dem Eröffnungsbuch, dessen Züge die Maschine ohne Suche
+     * spielt. Ist {@code null}, falls immer gesucht wird.
+     */
+    private OpeningBook book;
+
+    /**
+     * Entspricht der Vorausberechnung der Antworten der Maschine während
+     * der Mensch am Zug ist. Ist {@code null}, falls gerade nichts voraus
+     * berechnet wird.
+     */
+    private Ponderer ponderer;
+
+    /**
+     * Entspricht den Threads, auf die die Suche der Maschine verteilt wird.
+     * Ist {@code null}, solange nur ein Thread verwendet wird.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Entspricht dem Verfahren, mit dem die Suche der Maschine auf die
+     * Threads von {@link #pool} verteilt wird.
+     */
+    private ParallelMode parallelMode = ParallelMode.LAZY_SMP;
+
+    /**
+     * Entspricht {@code true}, falls die parallele Suche den besten Score
+     * nicht zwischen den Threads teilen soll.
+     *
+     * @see ParallelSearch
+     */
+    private boolean deterministic = false;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der die Maschine das Spiel
+     * exakt zu Ende rechnet. Entspricht {@code 0}, falls nie exakt gerechnet
+     * wird.
+     *
+     * @see EndgameSolver
+     */
+    private int endgameThreshold = DEFAULT_ENDGAME_THRESHOLD;
+
+    /**
+     * Entspricht der exakten Differenz der Steine am Ende des Spiels aus
+     * Sicht der Maschine, die beim letzten Zug der Maschine berechnet wurde.
+     * Ist {@code null}, falls der letzte Zug nicht exakt berechnet wurde.
+     */
+    private Integer expectedDiscDifferential;
+
+    /**
+     * Entspricht {@code 1}, {@code 0} oder {@code -1}, falls die Maschine
+     * bei perfektem Spiel gewinnt, unentschieden spielt oder verliert, wie
+     * beim letzten Zug der Maschine berechnet. Ist {@code null}, falls das
+     * Spiel beim letzten Zug nicht zu Ende gerechnet wurde.
+     */
+    private Integer expectedOutcome;
+
+    /**
+     * Entspricht den Kennzahlen der letzten Suche der Maschine. Ist
+     * {@code null}, solange die Maschine noch nicht gezogen hat.
+     */
+    private SearchStatistics lastStatistics;
+
+    /**
+     * Beginnt ein neues Spiel mit denselben Einstellungen. Eine laufende
+     * Vorausberechnung wird abgebrochen und die Einträge der
+     * Transpositionstabelle gelten als veraltet.
+     *
+     * @see TranspositionTable#newGame()
+     */
+    synchronized void newGame() {
+        stopPondering();
+        if (table != null) {
+            table.newGame();
+        }
+        expectedDiscDifferential = null;
+        expectedOutcome = null;
+        lastStatistics = null;
+    }
+
+    /**
+     * Berechnet den besten Zug für die Maschine und führt diesen auf einem
+     * Klon aus. Falls ein Zeitlimit gesetzt ist, wird so tief gesucht, wie
+     * es die Zeit erlaubt, andernfalls bis zur Tiefe des Levels. Sind nur
+     * noch wenige Felder leer, wird das Spiel stattdessen exakt zu Ende
+     * gerechnet. Mit Zeitlimit wird bei einigen leeren Feldern mehr nur
+     * berechnet, ob die Maschine gewinnt, und falls auch das nicht in der
+     * Zeit gelingt, doch mit {@code Score} gesucht. Steht die
+     * Spielsituation in einem gesetzten Eröffnungsbuch, wird der Zug des
+     * Buchs ohne Suche gespielt. Wurde der Zug während der Bedenkzeit des
+     * Menschen bereits berechnet, wird er übernommen. Die Dauer des Zuges
+     * wird in den Kennzahlen des Zuges vermerkt.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @return                  Entspricht dem Klon, auf dem der Zug
+     *                          ausgeführt wurde.
+     * @see                     Search
+     * @see                     EndgameSolver
+     * @see                     OpeningBook
+     * @see                     #ponder(Reversi)
+     */
+    synchronized Reversi machineMove(Reversi position) {
+        assert !position.gameOver() && position.next() == Player.MACHINE
+                : "The machine must be able to move!";
+
+        long start = System.nanoTime();
+        expectedDiscDifferential = null;
+        expectedOutcome = null;
+        Reversi move = calculateMachineMove(position, start);
+        lastStatistics.setElapsedNanos(System.nanoTime() - start);
+        return move;
+    }
+
+    /**
+     * Berechnet den Zug der Maschine, wie in
+     * {@link #machineMove(Reversi)} beschrieben, und setzt
+     * {@link #lastStatistics}.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @param start             Entspricht dem Beginn des Zuges nach
+     *                          {@link System#nanoTime()}.
+     * @return                  Entspricht dem Klon, auf dem der Zug
+     *                          ausgeführt wurde.
+     */
+    private Reversi calculateMachineMove(Reversi position, long start) {
+        Reversi move = ponderedMove(position);
+        if (move == null) {
+            move = bookMove(position);
+        }
+        if (move != null) {
+            return move;
+        }
+        int numberOfEmptyFields = getNumberOfEmptyFields(position);
+        if (timeLimit == 0) {
+            if (numberOfEmptyFields <= endgameThreshold) {
+                return solveEndgame(position, Long.MAX_VALUE, false);
+            }
+            return heuristicMove(position, 0);
+        }
+
+        if (endgameThreshold > 0 && numberOfEmptyFields
+                <= endgameThreshold + WIN_LOSS_DRAW_EMPTIES) {
+            long nanos = timeLimit * 1_000_000L;
+            move = solveEndgame(position, start + nanos / 4 * 3,
+                    numberOfEmptyFields > endgameThreshold);
+            if (move != null) {
+                return move;
+            }
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        return heuristicMove(position,
+                Math.max(1, timeLimit - (int) elapsed));
+    }
+
+    /**
+     * Beendet die Vorausberechnung und übernimmt deren Antwort auf den
+     * letzten Zug des Menschen, falls diese berechnet wurde.
+     *
+     * @param position          Entspricht der Spielsituation nach dem Zug
+     *                          des Menschen.
+     * @return                  Gibt einen Klon zurück, auf dem der Zug
+     *                          ausgeführt wurde, oder {@code null}, falls
+     *                          die Antwort nicht voraus berechnet wurde.
+     * @see                     Ponderer#finish(Reversi)
+     */
+    private Reversi ponderedMove(Reversi position) {
+        if (ponderer == null) {
+            return null;
+        }
+        Ponderer finished = ponderer;
+        ponderer = null;
+        int index = finished.finish(position);
+        if (index < 0) {
+            return null;
+        }
+        lastStatistics = finished.getStatistics(index);
+        return finished.getMove(index);
+    }
+
+    /**
+     * Sucht den Zug der Maschine im Eröffnungsbuch.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @return                  Gibt einen Klon zurück, auf dem der Zug
+     *                          ausgeführt wurde, oder {@code null}, falls
+     *                          kein Buch gesetzt ist oder die
+     *                          Spielsituation nicht im Buch steht.
+     * @see                     OpeningBook#lookup(long, long)
+     */
+    private Reversi bookMove(Reversi position) {
+        if (book == null) {
+            return null;
+        }
+        int square = book.lookup(position.getDiscs(Player.MACHINE),
+                position.getDiscs(Player.HUMAN));
+        if (square == OpeningBook.NO_MOVE
+                || (position.legalMoves(Player.MACHINE) & (1L << square))
+                    == 0) {
+            return null;
+        }
+        lastStatistics = new SearchStatistics();
+        return position.moveForNextPlayer(square);
+    }
+
+    /**
+     * Berechnet den perfekten Zug der Maschine, indem das Spiel zu Ende
+     * gerechnet wird, und merkt sich das dabei berechnete Ergebnis. Liegt
+     * die Hälfte der Zeit bis {@code deadline} noch vor dem Ende der exakten
+     * Berechnung, wird mit der restlichen Zeit nur noch berechnet, ob die
+     * Maschine gewinnt.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @param deadline          Entspricht dem Zeitpunkt nach
+     *                          {@link System#nanoTime()}, an dem die
+     *                          Berechnung abgebrochen wird.
+     * @param winLossDraw       Entspricht {@code true}, falls direkt nur Sieg,
+     *                          Niederlage oder Unentschieden berechnet wird.
+     * @return                  Gibt einen Klon zurück, auf dem der Zug
+     *                          ausgeführt wurde, oder {@code null}, falls
+     *                          die Zeit nicht gereicht hat.
+     * @see                     EndgameSolver
+     */
+    private Reversi solveEndgame(Reversi position, long deadline,
+                                 boolean winLossDraw) {
+        EndgameSolver solver = new EndgameSolver(position);
+        Reversi move = null;
+        if (!winLossDraw) {
+            long exactDeadline = deadline;
+            if (deadline != Long.MAX_VALUE) {
+                long now = System.nanoTime();
+                exactDeadline = now + (deadline - now) / 2;
+            }
+            move = solver.solveExact(exactDeadline);
+            if (move != null) {
+                expectedDiscDifferential = solver.getDiscDifferential();
+            }
+        }
+        if (move == null) {
+            move = solver.solveWinLossDraw(deadline);
+        }
+        if (move != null) {
+            expectedOutcome = solver.getOutcome();
+        }
+        lastStatistics = solver.getStatistics();
+        return move;
+    }
+
+    /**
+     * Berechnet den Zug der Maschine mit einer Suche, die die
+     * Spielsituationen mit {@link #evaluator} bewertet.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @param milliseconds      Entspricht der Zeit für die Suche oder
+     *                          {@code 0}, falls bis zur Tiefe des Levels
+     *                          gesucht wird.
+     * @return                  Gibt einen Klon zurück, auf dem der Zug
+     *                          ausgeführt wurde.
+     * @see                     Search
+     */
+    private Reversi heuristicMove(Reversi position, int milliseconds) {
+        if (pool != null) {
+            return parallelMachineMove(position, milliseconds);
+        }
+        Search search = new Search(position, SearchMode.ALPHA_BETA,
+                getTable());
+        Reversi move;
+        if (milliseconds > 0) {
+            move = search.calculateBestMoveInTime(milliseconds);
+        } else {
+            move = search.calculateBestMove(level);
+        }
+        lastStatistics = search.getStatistics();
+        return move;
+    }
+
+    /**
+     * Berechnet den Zug der Maschine mit einer parallelen Suche auf den
+     * Threads von {@link #pool}, je nach {@link #parallelMode}.
+     *
+     * @param position          Entspricht der Spielsituation, in der die
+     *                          Maschine am Zug ist.
+     * @param milliseconds      Entspricht der Zeit für die Suche oder
+     *                          {@code 0}, falls bis zur Tiefe des Levels
+     *                          gesucht wird.
+     * @return                  Gibt einen Klon zurück, auf dem der Zug
+     *                          ausgeführt wurde.
+     * @see                     ParallelSearch
+     * @see                     LazySmpSearch
+     */
+    private Reversi parallelMachineMove(Reversi position, int milliseconds) {
+        Reversi move;
+        if (parallelMode == ParallelMode.LAZY_SMP) {
+            LazySmpSearch search = new LazySmpSearch(position, pool,
+                    getTable());
+            if (milliseconds > 0) {
+                move = search.calculateBestMoveInTime(milliseconds);
+            } else {
+                move = search.calculateBestMove(level);
+            }
+            lastStatistics = search.getStatistics();
+        } else {
+            ParallelSearch search = new ParallelSearch(position, pool,
+                    deterministic, getTable());
+            if (milliseconds > 0) {
+                move = search.calculateBestMoveInTime(milliseconds);
+            } else {
+                move = search.calculateBestMove(level);
+            }
+            lastStatistics = search.getStatistics();
+        }
+        return move;
+    }
+
+    /**
+     * Startet die Vorausberechnung der Antworten der Maschine, falls der
+     * Mensch am Zug ist. Die Züge des Menschen werden in absteigender
+     * Reihenfolge ihrer Bewertung aus Sicht des Menschen durchsucht, wobei
+     * Züge ausgelassen werden, auf die die Maschine aus dem Eröffnungsbuch
+     * oder exakt antworten würde. Eine Vorausberechnung für dieselbe
+     * Spielsituation läuft weiter, jede andere wird abgebrochen.
+     *
+     * @param position          Entspricht der Spielsituation, in der der
+     *                          Mensch am Zug ist.
+     * @see                     Ponderer
+     */
+    synchronized void ponder(Reversi position) {
+        if (ponderer != null && ponderer.isPondering(position)) {
+            return;
+        }
+        stopPondering();
+        if (position.gameOver() || position.next() != Player.HUMAN) {
+            return;
+        }
+
+        List<Reversi> replies = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        for (long moves = position.legalMoves(Player.HUMAN); moves != 0;
+                moves &= moves - 1) {
+            Reversi reply = position.moveForNextPlayer(
+                    Long.numberOfTrailingZeros(moves));
+            if (isSearchedHeuristically(reply)) {
+                double score = evaluator.evaluate(reply, Player.HUMAN);
+                int index = 0;
+                while (index < scores.size() && scores.get(index) >= score) {
+                    index++;
+                }
+                replies.add(index, reply);
+                scores.add(index, score);
+            }
+        }
+        if (!replies.isEmpty()) {
+            int levelOfSearch = timeLimit > 0 ? 0 : level;
+            ponderer = new Ponderer(position, replies, levelOfSearch,
+                    timeLimit, getTable());
+            ponderer.start();
+        }
+    }
+
+    /**
+     * Gibt zurück, ob die Maschine ihren Zug in einer Spielsituation mit
+     * einer Suche berechnen würde, statt ihn aus dem Eröffnungsbuch zu
+     * nehmen oder das Spiel exakt zu Ende zu rechnen.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @return              Gibt {@code true} zurück, falls die Maschine am
+     *                      Zug ist und suchen würde.
+     * @see                 #machineMove(Reversi)
+     */
+    private boolean isSearchedHeuristically(Reversi position) {
+        if (position.gameOver() || position.next() != Player.MACHINE) {
+            return false;
+        }
+        int exactEmpties = endgameThreshold;
+        if (timeLimit > 0 && endgameThreshold > 0) {
+            exactEmpties += WIN_LOSS_DRAW_EMPTIES;
+        }
+        return getNumberOfEmptyFields(position) > exactEmpties
+                && (book == null || book.lookup(
+                        position.getDiscs(Player.MACHINE),
+                        position.getDiscs(Player.HUMAN))
+                    == OpeningBook.NO_MOVE);
+    }
+
+    /**
+     * Bricht eine laufende Vorausberechnung ab, damit sie nicht mit
+     * veralteten Einstellungen weiterrechnet oder die Transpositionstabelle
+     * gleichzeitig mit einer anderen Suche verwendet. Wartet, bis die Suche
+     * beendet ist.
+     *
+     * @see                 Ponderer#cancel()
+     */
+    synchronized void stopPondering() {
+        if (ponderer != null) {
+            ponderer.cancel();
+            ponderer = null;
+        }
+    }
+
+    /**
+     * Gibt die Transpositionstabelle zurück und legt sie beim ersten Aufruf
+     * an.
+     *
+     * @return              Entspricht der Transpositionstabelle.
+     */
+    private TranspositionTable getTable() {
+        if (table == null) {
+            table = new TranspositionTable(tableSize);
+        }
+        return table;
+    }
+
+    /**
+     * Gibt die Anzahl der leeren Felder einer Spielsituation zurück.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @return              Gibt die Anzahl der leeren Felder zurück.
+     */
+    private static int getNumberOfEmptyFields(Reversi position) {
+        return Board.SIZE * Board.SIZE - position.getNumberOfHumanTiles()
+                - position.getNumberOfMachineTiles();
+    }
+
+    /**
+     * Setzt die Schwierigkeitsstufe.
+     *
+     * @param level         Entspricht dem neuen Level, das positiv ist.
+     */
+    synchronized void setLevel(int level) {
+        assert level > 0 : "Level cannot be negative or 0!";
+
+        stopPondering();
+        this.level = level;
+    }
+
+    /**
+     * Setzt die Zeit, die die Maschine für einen Zug suchen darf.
+     *
+     * @param milliseconds  Entspricht der Zeit pro Zug in Millisekunden oder
+     *                      {@code 0}, falls bis zur Tiefe des Levels gesucht
+     *                      wird.
+     */
+    synchronized void setTimeLimit(int milliseconds) {
+        assert milliseconds >= 0 : "Time limit cannot be negative!";
+
+        stopPondering();
+        timeLimit = milliseconds;
+    }
+
+    /**
+     * Setzt die Größe der Transpositionstabelle. Die bisherige Tabelle wird
+     * verworfen.
+     *
+     * @param megabytes     Entspricht dem max Speicher der Tabelle in MB.
+     */
+    synchronized void setTableSize(int megabytes) {
+        assert megabytes > 0 : "Size cannot be negative or 0!";
+
+        stopPondering();
+        tableSize = megabytes;
+        table = null;
+    }
+
+    /**
+     * Setzt die Anzahl an Threads, auf die die Suche der Maschine verteilt
+     * wird. Die Threads der bisherigen Anzahl werden beendet.
+     *
+     * @param threads       Entspricht der Anzahl an Threads.
+     */
+    synchronized void setThreads(int threads) {
+        assert threads > 0 : "Number of threads cannot be negative or 0!";
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Setzt die Anzahl an leeren Feldern, ab der die Maschine das Spiel
+     * exakt zu Ende rechnet.
+     *
+     * @param empties       Entspricht der Anzahl an leeren Feldern oder
+     *                      {@code 0}, falls nie exakt gerechnet wird.
+     */
+    synchronized void setEndgameThreshold(int empties) {
+        assert empties >= 0 : "Endgame threshold cannot be negative!";
+
+        stopPondering();
+        endgameThreshold = empties;
+    }
+
+    /**
+     * Setzt die Bewertung der Spielsituationen. Die Transpositionstabelle
+     * wird dabei geleert, da ihre Scores mit der bisherigen Bewertung
+     * berechnet wurden.
+     *
+     * @param evaluator     Entspricht der neuen Bewertung.
+     */
+    synchronized void setEvaluator(Evaluator evaluator) {
+        assert evaluator != null : "Evaluator cannot be undefined!";
+
+        stopPondering();
+        this.evaluator = evaluator;
+        if (table != null) {
+            table.clear();
+        }
+    }
+
+    /**
+     * Gibt die Bewertung der Spielsituationen zurück, die die Suche der
+     * Maschine verwendet. Ist nicht synchronisiert, damit die Threads einer
+     * laufenden Suche nicht auf den Lock warten.
+     *
+     * @return              Entspricht der Bewertung.
+     */
+    Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Setzt das Eröffnungsbuch.
+     *
+     * @param book          Entspricht dem Buch oder {@code null}, falls immer
+     *                      gesucht wird.
+     */
+    synchronized void setOpeningBook(OpeningBook book) {
+        stopPondering();
+        this.book = book;
+    }
+
+    /**
+     * Legt das Verfahren fest, mit dem die Suche der Maschine auf mehrere
+     * Threads verteilt wird.
+     *
+     * @param parallelMode      Entspricht dem Verfahren.
+     * @see                     ParallelMode
+     */
+    synchronized void setParallelMode(ParallelMode parallelMode) {
+        assert parallelMode != null : "Parallel mode cannot be undefined!";
+
+        this.parallelMode = parallelMode;
+    }
+
+    /**
+     * Legt fest, ob die Verteilung der Züge der Ausgangsspielsituation den
+     * besten Score und die Transpositionstabelle zwischen den Threads teilt.
+     *
+     * @param deterministic     Entspricht {@code true}, falls der Score
+     *                          nicht geteilt werden soll.
+     * @see                     ParallelSearch
+     */
+    synchronized void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Gibt die exakte Differenz der Steine am Ende des Spiels zurück, die
+     * die Maschine bei ihrem letzten Zug berechnet hat.
+     *
+     * @return              Entspricht der Differenz aus Sicht der Maschine
+     *                      oder {@code null}, falls der letzte Zug nicht
+     *                      exakt berechnet wurde.
+     */
+    synchronized Integer getExpectedDiscDifferential() {
+        return expectedDiscDifferential;
+    }
+
+    /**
+     * Gibt zurück, ob die Maschine bei perfektem Spiel gewinnt, wie bei
+     * ihrem letzten Zug berechnet.
+     *
+     * @return              Entspricht {@code 1}, {@code 0} oder {@code -1}
+     *                      oder {@code null}, falls das Spiel beim letzten
+     *                      Zug nicht zu Ende gerechnet wurde.
+     */
+    synchronized Integer getExpectedOutcome() {
+        return expectedOutcome;
+    }
+
+    /**
+     * Gibt die Kennzahlen der letzten Suche der Maschine zurück. Diese
+     * werden von keiner späteren Suche mehr verändert.
+     *
+     * @return              Entspricht den Kennzahlen oder {@code null}, falls
+     *                      die Maschine noch nicht gezogen hat.
+     */
+    synchronized SearchStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+}
@@ -0,0 +1,28 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code Evaluator} bewertet eine Spielsituation aus der Sicht eines
+ * {@code Player}. Die Bewertung dient der Suche der Maschine als
+ * Entscheidungsgrundlage. Welche Implementierung verwendet wird, kann zur
+ * Laufzeit über {@link Reversi#setPatternWeights(java.nio.file.Path)}
+ * gewählt werden. Implementierungen werden von mehreren Threads
+ * gleichzeitig verwendet und dürfen daher keinen veränderlichen Zustand
+ * besitzen.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see ScoreEvaluator
+ * @see PatternEvaluator
+ */
+interface Evaluator {
+
+    /**
+     * Bewertet eine Spielsituation aus der Sicht des zu bewertenden
+     * Spielers. Je höher die Bewertung, desto besser steht der Spieler.
+     *
+     * @param position          Entspricht der zu bewertenden Spielsituation.
+     * @param playerToAssess    Entspricht dem zu bewertenden Spieler.
+     * @return                  Gibt die Bewertung der Spielsituation zurück.
+     */
+    double evaluate(Reversi position, Player playerToAssess);
+}
@@ -0,0 +1,168 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * {@code LazySmpSearch} berechnet den besten Zug nach dem Lazy SMP
+ * Verfahren. Alle Threads durchsuchen dieselbe Ausgangsspielsituation mit
+ * iterativer Vertiefung und teilen sich eine Transpositionstabelle ohne
+ * Locks. Die Hilfsthreads suchen abwechselnd eine Tiefe voraus und
+ * sortieren die Züge leicht anders, sodass sie Einträge berechnen, die die
+ * Hauptsuche später aus der Tabelle übernimmt. Anders als bei
+ * {@code ParallelSearch} hängt der Nutzen daher nicht von der Anzahl der
+ * Züge der Ausgangsspielsituation ab.
+ *
+ * <p>Gespielt wird stets der Zug der Hauptsuche. Da jeder Eintrag der
+ * Tabelle unabhängig davon korrekt ist, welcher Thread ihn geschrieben hat,
+ * entspricht dieser Zug dem von {@code Search} mit derselben Tiefe.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class LazySmpSearch {
+
+    /**
+     * Entspricht dem Ausgangsspielfeld der Suche.
+     */
+    private final Reversi root;
+
+    /**
+     * Entspricht den Threads, auf denen die Hilfsthreads laufen.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Entspricht der Transpositionstabelle, die sich alle Threads teilen.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Entspricht der Suche des aufrufenden Threads, deren Zug gespielt wird.
+     */
+    private final Search mainSearch;
+
+    /**
+     * Entspricht den Suchen der Hilfsthreads.
+     */
+    private final List<Search> helperSearches = new ArrayList<>();
+
+    /**
+     * Kreiert eine Lazy SMP Suche für das Ausgangsspielfeld, das nicht
+     * vorbei sein darf. Neben dem aufrufenden Thread wird für jeden Thread
+     * des Pools bis auf einen eine Hilfssuche angelegt.
+     *
+     * @param root      Entspricht dem Ausgangsspielfeld.
+     * @param pool      Entspricht den Threads, auf denen die Hilfsthreads
+     *                  laufen.
+     * @param table     Entspricht der Transpositionstabelle, die sich alle
+     *                  Threads teilen.
+     */
+    LazySmpSearch(Reversi root, ForkJoinPool pool, TranspositionTable table) {
+        assert root != null : "The beginning game cannot be undefined!";
+        assert !root.gameOver() : "The game cannot be already over!";
+        assert pool != null : "The pool cannot be undefined!";
+        assert table != null : "The table cannot be undefined!";
+
+        this.root = root;
+        this.pool = pool;
+        this.table = table;
+        mainSearch = new Search(root, SearchMode.ALPHA_BETA, table);
+        for (int i = 1; i < pool.getParallelism(); i++) {
+            Search search = new Search(root, SearchMode.ALPHA_BETA, table);
+            search.perturbOrdering(i);
+            helperSearches.add(search);
+        }
+    }
+
+    /**
+     * Berechnet den besten Zug bis zu einer festen Tiefe. Die Hauptsuche
+     * vertieft dazu iterativ bis zu dieser Tiefe.
+     *
+     * @param level     Entspricht der Schwierigkeitsstufe nach der der beste
+     *                  Zug berechnet wird.
+     * @return          Entspricht dem besten Zug, ausgeführt auf einem Klon.
+     * @see             #search(int, long)
+     */
+    Reversi calculateBestMove(int level) {
+        assert level > 0 : "Level cannot be negative or 0!";
+
+        return root.moveForNextPlayer(search(level, Long.MAX_VALUE));
+    }
+
+    /**
+     * Berechnet den besten Zug mit iterativer Vertiefung, bis die Zeit
+     * abgelaufen ist. Die Suche mit Tiefe 1 wird immer vollständig
+     * durchgeführt, damit stets ein Zug gefunden wird.
+     *
+     * @param timeLimit     Entspricht der Zeit in Millisekunden, die für die
+     *                      Suche zur Verfügung steht.
+     * @return              Entspricht dem besten Zug, ausgeführt auf einem
+     *                      Klon.
+     * @see                 #search(int, long)
+     */
+    Reversi calculateBestMoveInTime(int timeLimit) {
+        assert timeLimit > 0 : "Time limit cannot be negative or 0!";
+
+        long deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        return root.moveForNextPlayer(search(
+                mainSearch.getNumberOfEmptyFields(), deadline));
+    }
+
+    /**
+     * Gibt die zusammengeführten Kennzahlen der Hauptsuche und aller
+     * Hilfssuchen zurück.
+     *
+     * @return          Entspricht den Kennzahlen.
+     * @see             SearchStatistics#merge(SearchStatistics)
+     */
+    SearchStatistics getStatistics() {
+        SearchStatistics statistics = new SearchStatistics();
+        statistics.merge(mainSearch.getStatistics());
+        for (Search search : helperSearches) {
+            statistics.merge(search.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Startet die Hilfsthreads, führt die Hauptsuche im aufrufenden Thread
+     * durch und beendet danach die Hilfsthreads. Die Hilfsthreads mit
+     * ungeradem Index beginnen eine Tiefe tiefer, sodass sie der Hauptsuche
+     * stets etwas voraus sind.
+     *
+     * @param maxLevel      Entspricht der max Tiefe der Hauptsuche.
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Entspricht dem Bitindex des besten Zuges.
+     * @see                 Search#searchDeepening(int, int, long)
+     */
+    private int search(int maxLevel, long deadline) {
+        table.newSearch();
+        int numberOfEmptyFields = mainSearch.getNumberOfEmptyFields();
+        List<ForkJoinTask<?>> helpers = new ArrayList<>();
+        for (int i = 0; i < helperSearches.size(); i++) {
+            Search search = helperSearches.get(i);
+            int firstLevel = 1 + (i + 1) % 2;
+            helpers.add(pool.submit(() -> search.searchDeepening(
+                    firstLevel, numberOfEmptyFields, deadline)));
+        }
+
+        int bestMove = mainSearch.searchDeepening(1, 1, Long.MAX_VALUE);
+        int move = mainSearch.searchDeepening(2, maxLevel, deadline);
+        if (move >= 0) {
+            bestMove = move;
+        }
+
+        for (Search search : helperSearches) {
+            search.stop();
+        }
+        for (ForkJoinTask<?> helper : helpers) {
+            helper.join();
+        }
+        return bestMove;
+    }
+}
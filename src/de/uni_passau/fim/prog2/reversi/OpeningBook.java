@@ -0,0 +1,234 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@code OpeningBook} liefert für bereits offline durchsuchte
+ * Spielsituationen den besten Zug, ohne erneut zu suchen. Das Buch ist eine
+ * Binärdatei aus Einträgen fester Größe, die nach dem Hash der
+ * Spielsituation sortiert sind. Die Datei wird in den Speicher gemappt und
+ * per binärer Suche gelesen, sodass sie weder den Heap belegt noch beim
+ * Start vollständig gelesen werden muss.
+ *
+ * <p>Gespiegelte und gedrehte Spielsituationen teilen sich einen Eintrag.
+ * Gespeichert wird jeweils die Lage mit dem kleinsten Hash, wobei der Zug
+ * in diese Lage abgebildet wird. Der Hash entspricht dem von
+ * {@link Zobrist#hash(long, long)}, wobei die Steine des ziehenden Spielers
+ * als die des Menschen zählen.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see OpeningBookBuilder
+ */
+final class OpeningBook {
+
+    /**
+     * Entspricht den ersten vier Bytes jeder Datei eines Buchs.
+     */
+    private static final int MAGIC = 0x52424f4b;
+
+    /**
+     * Entspricht der Version des Dateiformats.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Entspricht der Größe des Headers aus {@link #MAGIC}, {@link #VERSION}
+     * und der Anzahl der Einträge in Bytes.
+     */
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    /**
+     * Entspricht der Größe eines Eintrags aus Hash, Zug und Score in Bytes.
+     */
+    private static final int ENTRY_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+    /**
+     * Entspricht dem Zug, der zurückgegeben wird, falls die Spielsituation
+     * nicht im Buch steht.
+     */
+    static final int NO_MOVE = -1;
+
+    /**
+     * Entspricht dem in den Speicher gemappten Inhalt der Datei. Wird nur
+     * mit absoluten Positionen gelesen und kann daher von mehreren Threads
+     * gleichzeitig verwendet werden.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Entspricht der Anzahl der Einträge.
+     */
+    private final int numberOfEntries;
+
+    /**
+     * Kreiert ein Buch aus dem gemappten Inhalt einer Datei.
+     *
+     * @param buffer                Entspricht dem Inhalt der Datei.
+     * @param numberOfEntries       Entspricht der Anzahl der Einträge.
+     */
+    private OpeningBook(MappedByteBuffer buffer, int numberOfEntries) {
+        this.buffer = buffer;
+        this.numberOfEntries = numberOfEntries;
+    }
+
+    /**
+     * Mappt eine Datei, die mit {@link #write(Path, long[], int[], float[])}
+     * geschrieben wurde, in den Speicher.
+     *
+     * @param file              Entspricht der Datei des Buchs.
+     * @return                  Gibt das Buch zurück.
+     * @throws IOException      Wird geworfen, falls die Datei nicht gelesen
+     *                          werden kann oder kein Buch enthält.
+     */
+    static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, size);
+            int numberOfEntries = buffer.getInt(2 * Integer.BYTES);
+            if (buffer.getInt(0) != MAGIC
+                    || buffer.getInt(Integer.BYTES) != VERSION
+                    || numberOfEntries < 0 || size != HEADER_BYTES
+                        + (long) numberOfEntries * ENTRY_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            return new OpeningBook(buffer, numberOfEntries);
+        }
+    }
+
+    /**
+     * Schreibt ein Buch in eine Datei. Die Einträge werden dabei nach ihrem
+     * Hash sortiert.
+     *
+     * @param file              Entspricht der zu schreibenden Datei.
+     * @param keys              Entspricht den Hashes der Spielsituationen
+     *                          nach {@link #getKey(long, long)}.
+     * @param moves             Entspricht den besten Zügen in der Lage des
+     *                          Hashs.
+     * @param scores            Entspricht den Scores der besten Züge.
+     * @throws IOException      Wird geworfen, falls die Datei nicht
+     *                          geschrieben werden kann.
+     */
+    static void write(Path file, long[] keys, int[] moves, float[] scores)
+            throws IOException {
+        assert keys.length == moves.length && keys.length == scores.length
+                : "Entries have different lengths!";
+
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second)
+                -> Long.compare(keys[first], keys[second]));
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keys.length);
+            for (int i : order) {
+                out.writeLong(keys[i]);
+                out.writeInt(moves[i]);
+                out.writeFloat(scores[i]);
+            }
+        }
+    }
+
+    /**
+     * Sucht den besten Zug einer Spielsituation im Buch.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt den Bitindex des besten Zuges zurück oder
+     *                      {@link #NO_MOVE}, falls die Spielsituation nicht
+     *                      im Buch steht.
+     */
+    int lookup(long own, long enemy) {
+        int symmetry = getSymmetry(own, enemy);
+        long key = Zobrist.hash(BitBoard.transform(own, symmetry),
+                BitBoard.transform(enemy, symmetry));
+
+        int low = 0;
+        int high = numberOfEntries - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER_BYTES + middle * ENTRY_BYTES;
+            long middleKey = buffer.getLong(offset);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                int move = buffer.getInt(offset + Long.BYTES);
+                for (int square = 0; square < Board.SIZE * Board.SIZE;
+                        square++) {
+                    if (BitBoard.transformSquare(square, symmetry) == move) {
+                        return square;
+                    }
+                }
+                return NO_MOVE;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Gibt die Anzahl der Einträge im Buch zurück.
+     *
+     * @return          Gibt die Anzahl der Einträge zurück.
+     */
+    int size() {
+        return numberOfEntries;
+    }
+
+    /**
+     * Gibt den Hash zurück, unter dem eine Spielsituation und alle ihre
+     * gespiegelten und gedrehten Lagen im Buch stehen.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt den kleinsten Hash aller Lagen zurück.
+     */
+    static long getKey(long own, long enemy) {
+        int symmetry = getSymmetry(own, enemy);
+        return Zobrist.hash(BitBoard.transform(own, symmetry),
+                BitBoard.transform(enemy, symmetry));
+    }
+
+    /**
+     * Gibt die Symmetrie zurück, die eine Spielsituation in die Lage mit
+     * dem kleinsten Hash abbildet.
+     *
+     * @param own           Entspricht den Steinen des ziehenden Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt die Symmetrie zurück.
+     * @see                 BitBoard#transform(long, int)
+     */
+    static int getSymmetry(long own, long enemy) {
+        int bestSymmetry = 0;
+        long bestKey = Zobrist.hash(own, enemy);
+        for (int symmetry = 1; symmetry < BitBoard.NUMBER_OF_SYMMETRIES;
+                symmetry++) {
+            long key = Zobrist.hash(BitBoard.transform(own, symmetry),
+                    BitBoard.transform(enemy, symmetry));
+            if (key < bestKey) {
+                bestKey = key;
+                bestSymmetry = symmetry;
+            }
+        }
+        return bestSymmetry;
+    }
+}
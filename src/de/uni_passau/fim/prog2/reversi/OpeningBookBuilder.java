@@ -0,0 +1,139 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code OpeningBookBuilder} ist ein Programm, das offline ein
+ * {@code OpeningBook} erzeugt. Dazu werden alle Spielsituationen bis zu
+ * einer Anzahl an Zügen nach dem Start aufgezählt, wobei gespiegelte und
+ * gedrehte Spielsituationen nur einmal vorkommen. Jede dieser
+ * Spielsituationen wird bis zu einer festen Tiefe durchsucht und der beste
+ * Zug mit seinem Score im Buch gespeichert.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+public final class OpeningBookBuilder {
+
+    /**
+     * Entspricht der Anzahl an Zügen nach dem Start, bis zu der
+     * Spielsituationen ins Buch aufgenommen werden, falls keine angegeben
+     * wurde.
+     */
+    private static final int DEFAULT_PLIES = 6;
+
+    /**
+     * Entspricht der Tiefe der Suche jeder Spielsituation, falls keine
+     * angegeben wurde.
+     */
+    private static final int DEFAULT_LEVEL = 6;
+
+    /**
+     * Entspricht der Größe der Transpositionstabelle der Suche in MB.
+     */
+    private static final int TABLE_SIZE = 64;
+
+    private OpeningBookBuilder() { }
+
+    /**
+     * Startet das Programm. Der erste Parameter ist die zu schreibende
+     * Datei, der optionale zweite die Anzahl an Zügen nach dem Start, der
+     * optionale dritte die Tiefe der Suche und der optionale vierte eine
+     * Datei mit Gewichten für {@code PatternEvaluator}.
+     *
+     * @param args              Entspricht der Startübergabe des Programms.
+     * @throws IOException      Wird geworfen, falls eine Datei nicht gelesen
+     *                          oder geschrieben werden kann.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 4) {
+            System.err.println("Usage: OpeningBookBuilder <file> [plies]"
+                    + " [level] [weights]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1])
+                                    : DEFAULT_PLIES;
+        int level = args.length > 2 ? Integer.parseInt(args[2])
+                                    : DEFAULT_LEVEL;
+        Reversi start = new Reversi(Player.HUMAN);
+        if (args.length > 3) {
+            start.setPatternWeights(Paths.get(args[3]));
+        }
+
+        List<Reversi> positions = enumeratePositions(start, plies);
+        System.out.printf("%d positions%n", positions.size());
+        long[] keys = new long[positions.size()];
+        int[] moves = new int[positions.size()];
+        float[] scores = new float[positions.size()];
+        TranspositionTable table = new TranspositionTable(TABLE_SIZE);
+        for (int i = 0; i < positions.size(); i++) {
+            Reversi position = positions.get(i);
+            long own = position.getDiscs(position.next());
+            long enemy = position.getDiscs(position.next().inverse());
+            int symmetry = OpeningBook.getSymmetry(own, enemy);
+            Search search = new Search(position, SearchMode.ALPHA_BETA,
+                    table);
+            Reversi move = search.calculateBestMove(level);
+            long occupied = own | enemy;
+            int square = Long.numberOfTrailingZeros(
+                    (move.getDiscs(Player.HUMAN)
+                        | move.getDiscs(Player.MACHINE)) & ~occupied);
+
+            keys[i] = OpeningBook.getKey(own, enemy);
+            moves[i] = BitBoard.transformSquare(square, symmetry);
+            scores[i] = (float) search.getBestScore();
+            if ((i + 1) % 100 == 0) {
+                System.out.printf("%d positions searched%n", i + 1);
+            }
+        }
+        OpeningBook.write(file, keys, moves, scores);
+        System.out.println("Opening book written to " + file);
+    }
+
+    /**
+     * Zählt alle Spielsituationen, die nicht vorbei sind, bis zu einer
+     * Anzahl an Zügen nach der Ausgangsspielsituation auf. Von gespiegelten
+     * und gedrehten Spielsituationen wird nur die zuerst gefundene behalten.
+     *
+     * @param start         Entspricht der Ausgangsspielsituation.
+     * @param plies         Entspricht der Anzahl an Zügen.
+     * @return              Gibt die Spielsituationen nach der Anzahl an
+     *                      Zügen sortiert zurück.
+     */
+    private static List<Reversi> enumeratePositions(Reversi start,
+                                                    int plies) {
+        Set<Long> keys = new HashSet<>();
+        List<Reversi> positions = new ArrayList<>();
+        List<Reversi> current = new ArrayList<>();
+        current.add(start);
+        for (int ply = 0; ply <= plies; ply++) {
+            List<Reversi> next = new ArrayList<>();
+            for (Reversi position : current) {
+                if (position.gameOver()) {
+                    continue;
+                }
+                Player player = position.next();
+                long key = OpeningBook.getKey(position.getDiscs(player),
+                        position.getDiscs(player.inverse()));
+                if (!keys.add(key)) {
+                    continue;
+                }
+                positions.add(position);
+                for (long moves = position.legalMoves(player); moves != 0;
+                        moves &= moves - 1) {
+                    next.add(position.moveForNextPlayer(
+                            Long.numberOfTrailingZeros(moves)));
+                }
+            }
+            current = next;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,25 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * Stellt die Verfahren dar, mit denen die Suche der Maschine auf mehrere
+ * Threads verteilt werden kann. Beide Verfahren liefern für dieselbe
+ * Schwierigkeitsstufe denselben Zug wie die Suche mit einem Thread.
+ *
+ * @see Board#setParallelMode(ParallelMode)
+ * @version 21.12.19
+ * @author -----
+ */
+public enum ParallelMode {
+
+    /**
+     * Entspricht {@code ParallelSearch}, die die Züge der
+     * Ausgangsspielsituation auf die Threads verteilt.
+     */
+    ROOT_SPLIT,
+    /**
+     * Entspricht {@code LazySmpSearch}, bei der alle Threads dieselbe
+     * Ausgangsspielsituation durchsuchen und sich die Transpositionstabelle
+     * teilen.
+     */
+    LAZY_SMP
+}
@@ -0,0 +1,322 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * {@code ParallelSearch} berechnet den besten Zug wie {@code Search} mit
+ * der Alpha-Beta Suche, verteilt die Züge der Ausgangsspielsituation aber
+ * auf die Threads eines {@code ForkJoinPool}. Jeder Thread durchsucht seine
+ * Züge mit einer eigenen {@code Search} auf einem eigenen Klon, sodass
+ * Killer Moves und History zwischen seinen Zügen erhalten bleiben. Der
+ * erste Zug wird allein durchsucht, bevor die restlichen Züge verteilt
+ * werden. Der beste bisher gefundene Score wird zwischen den Threads geteilt
+ * und dient den danach gestarteten Zügen als Alpha. Wird eine
+ * Transpositionstabelle übergeben, teilen sich alle Threads diese.
+ *
+ * <p>Der gewählte Zug entspricht stets dem von {@code Search}, da nur
+ * exakte Scores verglichen werden und Züge, die in zeilenweiser Reihenfolge
+ * vor dem bisher besten Zug liegen, mit einem minimal kleineren Alpha
+ * durchsucht werden. Im deterministischen Modus wird zusätzlich auf das
+ * Teilen der Scores und der Tabelle verzichtet, sodass auch die Anzahl der
+ * durchsuchten Spielsituationen nicht von der Reihenfolge der Threads
+ * abhängt.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class ParallelSearch {
+
+    /**
+     * Entspricht dem Ausgangsspielfeld der Suche.
+     */
+    private final Reversi root;
+
+    /**
+     * Entspricht den Threads, auf die die Züge verteilt werden.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Entspricht {@code true}, falls der beste Score nicht zwischen den
+     * Threads geteilt wird.
+     */
+    private final boolean deterministic;
+
+    /**
+     * Entspricht der Transpositionstabelle, die sich alle Threads teilen.
+     * Ist {@code null}, falls keine Tabelle verwendet wird.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Entspricht dem Objekt, über das der Zugriff auf den besten Zug und
+     * dessen Score synchronisiert wird.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Entspricht dem Bitindex des besten Zuges der momentanen Tiefe. Ist
+     * {@code -1}, solange noch kein Zug vollständig durchsucht wurde.
+     */
+    private int bestMove;
+
+    /**
+     * Entspricht dem exakten Score von {@link #bestMove}.
+     */
+    private double bestScore;
+
+    /**
+     * Entspricht dem besten Zug der letzten vollständigen Tiefe, der bei
+     * iterativer Vertiefung zuerst durchsucht wird.
+     */
+    private int bestMoveOfRoot = TranspositionTable.NO_MOVE;
+
+    /**
+     * Entspricht {@code true}, falls eine der Suchen der momentanen Tiefe
+     * abgebrochen wurde, weil die Zeit abgelaufen ist.
+     */
+    private volatile boolean aborted;
+
+    /**
+     * Entspricht der {@code Search} des momentanen Threads.
+     */
+    private final ThreadLocal<Search> searchOfThread
+            = ThreadLocal.withInitial(this::createSearch);
+
+    /**
+     * Entspricht allen bisher für die Threads angelegten Suchen.
+     */
+    private final List<Search> searches = new ArrayList<>();
+
+    /**
+     * Entspricht den Kennzahlen der Ausgangsspielsituation, deren Züge die
+     * Suchen der Threads durchsuchen.
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Kreiert eine parallele Suche für das Ausgangsspielfeld, das nicht
+     * vorbei sein darf.
+     *
+     * @param root              Entspricht dem Ausgangsspielfeld.
+     * @param pool              Entspricht den Threads, auf die die Züge
+     *                          verteilt werden.
+     * @param table             Entspricht der Transpositionstabelle, die
+     *                          sich alle Threads teilen, oder {@code null}.
+     *                          Im deterministischen Modus wird sie nicht
+     *                          verwendet.
+     */
+    ParallelSearch(Reversi root, ForkJoinPool pool, boolean deterministic,
+                   TranspositionTable table) {
+        assert root != null : "The beginning game cannot be undefined!";
+        assert !root.gameOver() : "The game cannot be already over!";
+        assert pool != null : "The pool cannot be undefined!";
+
+        this.root = root;
+        this.pool = pool;
+        this.deterministic = deterministic;
+        if (deterministic) {
+            this.table = null;
+        } else {
+            this.table = table;
+        }
+    }
+
+    /**
+     * Berechnet den besten Zug bis zu einer festen Tiefe.
+     *
+     * @param level     Entspricht der Schwierigkeitsstufe nach der der beste
+     *                  Zug berechnet wird.
+     * @return          Entspricht dem besten Zug, ausgeführt auf einem Klon.
+     * @see             #searchRoot(int, long)
+     */
+    Reversi calculateBestMove(int level) {
+        assert level > 0 : "Level cannot be negative or 0!";
+
+        if (table != null) {
+            table.newSearch();
+        }
+        return root.moveForNextPlayer(searchRoot(level, Long.MAX_VALUE));
+    }
+
+    /**
+     * Berechnet den besten Zug mit iterativer Vertiefung, bis die Zeit
+     * abgelaufen ist, wobei jede Tiefe parallel durchsucht wird.
+     *
+     * @param timeLimit     Entspricht der Zeit in Millisekunden, die für die
+     *                      Suche zur Verfügung steht.
+     * @return              Entspricht dem besten Zug, ausgeführt auf einem
+     *                      Klon.
+     * @see                 Search#calculateBestMoveInTime(int)
+     */
+    Reversi calculateBestMoveInTime(int timeLimit) {
+        assert timeLimit > 0 : "Time limit cannot be negative or 0!";
+
+        long deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        if (table != null) {
+            table.newSearch();
+        }
+        int numberOfEmptyFields = Board.SIZE * Board.SIZE
+                - root.getNumberOfHumanTiles() - root.getNumberOfMachineTiles();
+        int move = searchRoot(1, Long.MAX_VALUE);
+        for (int level = 2; level <= numberOfEmptyFields
+                && System.nanoTime() < deadline; level++) {
+            int moveOfLevel = searchRoot(level, deadline);
+            if (moveOfLevel < 0) {
+                break;
+            }
+            move = moveOfLevel;
+        }
+        return root.moveForNextPlayer(move);
+    }
+
+    /**
+     * Gibt die zusammengeführten Kennzahlen der Suchen aller Threads zurück.
+     *
+     * @return          Entspricht den Kennzahlen.
+     * @see             SearchStatistics#merge(SearchStatistics)
+     */
+    SearchStatistics getStatistics() {
+        SearchStatistics merged = new SearchStatistics();
+        merged.merge(statistics);
+        synchronized (lock) {
+            for (Search search : searches) {
+                merged.merge(search.getStatistics());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Legt die {@code Search} für einen Thread an, der zum ersten Mal einen
+     * Zug durchsucht.
+     *
+     * @return          Gibt die neue Suche zurück.
+     */
+    private Search createSearch() {
+        Search search = new Search(root, SearchMode.ALPHA_BETA, table);
+        synchronized (lock) {
+            searches.add(search);
+        }
+        return search;
+    }
+
+    /**
+     * Durchsucht alle Züge der Ausgangsspielsituation parallel bis zu einer
+     * festen Tiefe. Der beste Zug der letzten Tiefe wird zuerst und allein
+     * durchsucht, damit die übrigen Züge bereits mit seinem Score als Alpha
+     * starten. Danach werden die restlichen Züge nach dem Score ihres Feldes
+     * verteilt.
+     *
+     * @param level         Entspricht der max Tiefe der Suche.
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Entspricht dem Bitindex des besten Zuges oder
+     *                      {@code -1}, falls die Suche abgebrochen wurde.
+     * @see                 #searchMove(int, int, long)
+     */
+    private int searchRoot(int level, long deadline) {
+        bestMove = -1;
+        bestScore = Double.NEGATIVE_INFINITY;
+        aborted = false;
+
+        statistics.countNode(0);
+        long legalMoves = root.legalMoves(root.next());
+        int firstMove = nextMove(legalMoves);
+        legalMoves &= ~(1L << firstMove);
+        pool.invoke(ForkJoinTask.adapt(
+                () -> searchMove(firstMove, level, deadline)));
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        while (legalMoves != 0) {
+            int square = nextMove(legalMoves);
+            legalMoves &= ~(1L << square);
+            tasks.add(ForkJoinTask.adapt(
+                    () -> searchMove(square, level, deadline)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        if (aborted) {
+            return -1;
+        }
+        bestMoveOfRoot = bestMove;
+        return bestMove;
+    }
+
+    /**
+     * Gibt den Zug zurück, der als nächstes gestartet wird. Das ist der beste
+     * Zug der letzten Tiefe, falls dieser noch nicht gestartet wurde, und
+     * ansonsten der Zug mit dem größten Score des Feldes.
+     *
+     * @param legalMoves    Entspricht den noch nicht gestarteten Zügen.
+     * @return              Gibt den Bitindex des nächsten Zuges zurück.
+     * @see                 Score#getFieldScore(int)
+     */
+    private int nextMove(long legalMoves) {
+        assert legalMoves != 0 : "There must be at least 1 move left!";
+
+        if (bestMoveOfRoot != TranspositionTable.NO_MOVE
+                && (legalMoves & (1L << bestMoveOfRoot)) != 0) {
+            return bestMoveOfRoot;
+        }
+        int move = Long.numberOfTrailingZeros(legalMoves);
+        for (long bits = legalMoves & (legalMoves - 1); bits != 0;
+                bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            if (Score.getFieldScore(square) > Score.getFieldScore(move)) {
+                move = square;
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Durchsucht einen Zug der Ausgangsspielsituation in einem Thread des
+     * Pools. Als Alpha dient der beste bisher gefundene Score, wobei Züge,
+     * die in zeilenweiser Reihenfolge vor dem bisher besten Zug liegen, mit
+     * einem minimal kleineren Alpha durchsucht werden, damit ein gleicher
+     * Score erkannt wird. Nur exakte Scores, also Scores größer als Alpha,
+     * können den besten Zug ersetzen.
+     *
+     * @param square        Entspricht dem Bitindex des Zuges.
+     * @param level         Entspricht der max Tiefe der Suche.
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @see                 Search#calculateScoreOfMove(int, int, double,
+     *                      long)
+     */
+    private void searchMove(int square, int level, long deadline) {
+        if (aborted) {
+            return;
+        }
+
+        double alpha = Double.NEGATIVE_INFINITY;
+        if (!deterministic) {
+            synchronized (lock) {
+                if (bestMove >= 0 && square < bestMove) {
+                    alpha = Math.nextDown(bestScore);
+                } else if (bestMove >= 0) {
+                    alpha = bestScore;
+                }
+            }
+        }
+
+        Search search = searchOfThread.get();
+        double score = search.calculateScoreOfMove(square, level, alpha,
+                deadline);
+        synchronized (lock) {
+            if (search.isAborted()) {
+                aborted = true;
+            } else if (score > alpha && (bestMove < 0 || score > bestScore
+                    || (score == bestScore && square < bestMove))) {
+                bestScore = score;
+                bestMove = square;
+            }
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code PatternEvaluator} bewertet Spielsituationen über Gewichtstabellen
+ * statt über handkodierte Formeln. Das Spielbrett wird dazu in Muster
+ * zerlegt: Kanten, Ecken, Zeilen und Diagonalen. Jedes Muster kommt in bis
+ * zu acht gespiegelten oder gedrehten Lagen auf dem Spielbrett vor, die
+ * sich eine Tabelle teilen. Die Belegung der Felder eines Musters wird als
+ * Zahl zur Basis 3 kodiert, wobei ein leeres Feld {@code 0}, ein eigener
+ * Stein {@code 1} und ein gegnerischer Stein {@code 2} zählt. Diese Zahl
+ * ist der Index in die Tabelle des Musters.
+ *
+ * <p>Der Index wird nicht Feld für Feld berechnet. Stattdessen wird das
+ * Spielbrett gespiegelt oder gedreht, sodass jede Lage in einer Ansicht
+ * höchstens wenige Zeilen berührt. Für jede dieser Zeilen gibt es eine
+ * Tabelle, die jeder Belegung der acht Felder der Zeile ihren Anteil am
+ * Index zuordnet. Die Gewichte hängen zusätzlich von der Anzahl der leeren
+ * Felder ab und werden als {@code short} aus einer Binärdatei geladen, die
+ * {@link PatternWeightsBuilder} erzeugt. Die Klasse setzt ein Spielbrett
+ * der Größe 8 x 8 voraus.
+ *
+ * <p>Manche Muster werden von einer Symmetrie auf sich selbst abgebildet,
+ * etwa eine Zeile durch Spiegeln an der Mitte, wobei sich nur die
+ * Reihenfolge ihrer Felder ändert. Damit gespiegelte Spielsituationen
+ * gleich bewertet werden, zählt für solche Muster der kleinste Index aller
+ * so umgeordneten Belegungen. Beim Lernen liefert
+ * {@link #computeIndexes(long, long, int[])} diesen Index, sodass sich
+ * umgeordnete Belegungen ein Gewicht teilen. Beim Bewerten werden stattdessen
+ * die Gewichte beim Erzeugen auf alle umgeordneten Indizes kopiert, sodass
+ * die Bewertung ohne zusätzliche Tabelle auskommt.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class PatternEvaluator implements Evaluator {
+
+    /**
+     * Entspricht den ersten vier Bytes jeder Datei mit Gewichten.
+     */
+    static final int MAGIC = 0x52505457;
+
+    /**
+     * Entspricht der Version des Dateiformats.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Entspricht der Anzahl an Gewichtseinheiten pro Stein. Die Summe der
+     * Gewichte wird dadurch geteilt, sodass die Bewertung der erwarteten
+     * Differenz der Steine am Ende des Spiels entspricht.
+     */
+    static final int WEIGHT_SCALE = 32;
+
+    /**
+     * Entspricht den Mustern, jeweils als Bitindizes ihrer Felder in einer
+     * der Lagen auf dem Spielbrett. Die Reihenfolge der Felder legt die
+     * Stelle der Felder im Index fest.
+     *
+     * @see BitBoard#square(int, int)
+     */
+    private static final int[][] PATTERNS = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 9, 14},
+            {0, 1, 2, 8, 9, 10, 16, 17, 18},
+            {0, 1, 2, 3, 4, 8, 9, 10, 11, 12},
+            {8, 9, 10, 11, 12, 13, 14, 15},
+            {16, 17, 18, 19, 20, 21, 22, 23},
+            {24, 25, 26, 27, 28, 29, 30, 31},
+            {0, 9, 18, 27, 36, 45, 54, 63},
+            {1, 10, 19, 28, 37, 46, 55},
+            {2, 11, 20, 29, 38, 47},
+            {3, 12, 21, 30, 39},
+            {4, 13, 22, 31}};
+
+    /**
+     * Entspricht der Anzahl an Ansichten des Spielbretts, also dem
+     * unveränderten, dem an der Diagonale gespiegelten und den beiden um 45
+     * Grad gedrehten Spielbrett.
+     *
+     * @see #view(long, int)
+     */
+    private static final int NUMBER_OF_VIEWS = 4;
+
+    /**
+     * Entspricht der Anzahl an Belegungen einer Zeile.
+     */
+    private static final int ROW_STATES = 1 << 8;
+
+    /**
+     * Entspricht pro Lage eines Musters dem Index des Musters in
+     * {@link #PATTERNS}. Die Lagen sind nach ihrer Ansicht sortiert.
+     */
+    private static final int[] INSTANCE_PATTERNS;
+
+    /**
+     * Entspricht pro Lage eines Musters der Ansicht, in der die Lage die
+     * wenigsten Zeilen berührt.
+     */
+    private static final int[] INSTANCE_VIEWS;
+
+    /**
+     * Entspricht pro Lage eines Musters dem Ende ihrer Zeilen in
+     * {@link #ROW_SHIFTS} und {@link #ROW_OFFSETS}. Die Zeilen der Lagen
+     * liegen hintereinander.
+     */
+    private static final int[] INSTANCE_ENDS;
+
+    /**
+     * Entspricht pro Zeile einer Lage dem Shift, der die Zeile in der
+     * Ansicht der Lage auf die untersten acht Bits verschiebt.
+     */
+    private static final int[] ROW_SHIFTS;
+
+    /**
+     * Entspricht pro Zeile einer Lage dem Beginn ihrer Tabelle in
+     * {@link #ROW_TABLES}.
+     */
+    private static final int[] ROW_OFFSETS;
+
+    /**
+     * Entspricht Tabellen aus jeweils {@link #ROW_STATES} Werten, dem
+     * Anteil jeder Belegung einer Zeile am Index, falls die gesetzten Felder
+     * eigene Steine sind. Für Steine des Gegners zählt der doppelte Anteil.
+     * Gleiche Tabellen verschiedener Zeilen werden nur einmal gespeichert,
+     * sodass alle Tabellen in den L1 Cache passen.
+     */
+    private static final int[] ROW_TABLES;
+
+    /**
+     * Entspricht pro Muster dem kleinsten Index aller Belegungen, die aus
+     * einer Belegung durch Symmetrien entstehen, die das Muster auf sich
+     * selbst abbilden. Ist {@code null} für Muster ohne solche Symmetrie.
+     *
+     * @see #getCanonicalIndexes(int[])
+     */
+    private static final int[][] CANONICAL_INDEXES;
+
+    static {
+        assert Board.SIZE == 8 : "Patterns are only for 8x8 possible";
+
+        int[][] viewSquares = new int[NUMBER_OF_VIEWS][Board.SIZE * Board.SIZE];
+        for (int view = 0; view < NUMBER_OF_VIEWS; view++) {
+            for (int square = 0; square < Board.SIZE * Board.SIZE;
+                    square++) {
+                viewSquares[view][square]
+                        = Long.numberOfTrailingZeros(view(1L << square, view));
+            }
+        }
+
+        List<Integer> patterns = new ArrayList<>();
+        List<Integer> views = new ArrayList<>();
+        List<int[]> instances = new ArrayList<>();
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            Set<Long> masks = new HashSet<>();
+            for (int symmetry = 0; symmetry < BitBoard.NUMBER_OF_SYMMETRIES;
+                    symmetry++) {
+                int[] squares = new int[PATTERNS[pattern].length];
+                long mask = 0;
+                for (int i = 0; i < squares.length; i++) {
+                    squares[i] = BitBoard.transformSquare(
+                            PATTERNS[pattern][i], symmetry);
+                    mask |= 1L << squares[i];
+                }
+                if (masks.add(mask)) {
+                    patterns.add(pattern);
+                    views.add(getBestView(squares, viewSquares));
+                    instances.add(squares);
+                }
+            }
+        }
+
+        INSTANCE_PATTERNS = new int[instances.size()];
+        INSTANCE_VIEWS = new int[instances.size()];
+        INSTANCE_ENDS = new int[instances.size()];
+        List<Integer> shifts = new ArrayList<>();
+        List<int[]> tables = new ArrayList<>();
+        int instance = 0;
+        for (int view = 0; view < NUMBER_OF_VIEWS; view++) {
+            for (int i = 0; i < instances.size(); i++) {
+                if (views.get(i) == view) {
+                    INSTANCE_PATTERNS[instance] = patterns.get(i);
+                    INSTANCE_VIEWS[instance] = view;
+                    addRows(instances.get(i), viewSquares[view], shifts,
+                            tables);
+                    INSTANCE_ENDS[instance] = tables.size();
+                    instance++;
+                }
+            }
+        }
+        ROW_SHIFTS = new int[shifts.size()];
+        ROW_OFFSETS = new int[shifts.size()];
+        List<int[]> uniqueTables = new ArrayList<>();
+        for (int row = 0; row < ROW_SHIFTS.length; row++) {
+            ROW_SHIFTS[row] = shifts.get(row);
+            int unique = 0;
+            while (unique < uniqueTables.size() && !Arrays.equals(
+                    uniqueTables.get(unique), tables.get(row))) {
+                unique++;
+            }
+            if (unique == uniqueTables.size()) {
+                uniqueTables.add(tables.get(row));
+            }
+            ROW_OFFSETS[row] = unique * ROW_STATES;
+        }
+        ROW_TABLES = new int[uniqueTables.size() * ROW_STATES];
+        for (int i = 0; i < uniqueTables.size(); i++) {
+            System.arraycopy(uniqueTables.get(i), 0, ROW_TABLES,
+                    i * ROW_STATES, ROW_STATES);
+        }
+
+        CANONICAL_INDEXES = new int[PATTERNS.length][];
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            CANONICAL_INDEXES[pattern]
+                    = getCanonicalIndexes(PATTERNS[pattern]);
+        }
+    }
+
+    /**
+     * Entspricht den Gewichten, indiziert nach Phase, Muster und Index.
+     */
+    private final short[][][] weights;
+
+    /**
+     * Kreiert eine Bewertung mit den übergebenen Gewichten. Die Gewichte
+     * werden kopiert, wobei für Muster mit Symmetrie jeder Index das Gewicht
+     * seines kleinsten umgeordneten Index erhält.
+     *
+     * @param weights       Entspricht den Gewichten, indiziert nach Phase,
+     *                      Muster und Index.
+     * @see                 #CANONICAL_INDEXES
+     */
+    PatternEvaluator(short[][][] weights) {
+        assert weights != null && weights.length > 0
+                : "Weights cannot be undefined or empty!";
+
+        this.weights = new short[weights.length][PATTERNS.length][];
+        for (int phase = 0; phase < weights.length; phase++) {
+            for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                short[] table = weights[phase][pattern].clone();
+                int[] canonical = CANONICAL_INDEXES[pattern];
+                if (canonical != null) {
+                    for (int index = 0; index < table.length; index++) {
+                        table[index] = table[canonical[index]];
+                    }
+                }
+                this.weights[phase][pattern] = table;
+            }
+        }
+    }
+
+    /**
+     * Lädt die Gewichte aus einer Binärdatei, die mit
+     * {@link #save(Path)} geschrieben wurde.
+     *
+     * @param file              Entspricht der Datei mit den Gewichten.
+     * @return                  Gibt die Bewertung mit diesen Gewichten
+     *                          zurück.
+     * @throws IOException      Wird geworfen, falls die Datei nicht gelesen
+     *                          werden kann oder nicht zu den Mustern passt.
+     */
+    static PatternEvaluator load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a pattern weights file: " + file);
+            }
+            int numberOfPhases = in.readInt();
+            if (numberOfPhases <= 0
+                    || numberOfPhases > Board.SIZE * Board.SIZE) {
+                throw new IOException("Invalid number of phases: "
+                        + numberOfPhases);
+            }
+            if (in.readInt() != PATTERNS.length) {
+                throw new IOException("Weights do not match the patterns!");
+            }
+            for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                if (in.readInt() != getSize(pattern)) {
+                    throw new IOException("Weights do not match the"
+                            + " patterns!");
+                }
+            }
+
+            short[][][] weights = new short[numberOfPhases][PATTERNS.length][];
+            for (short[][] phase : weights) {
+                for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                    byte[] bytes = new byte[getSize(pattern) * Short.BYTES];
+                    in.readFully(bytes);
+                    phase[pattern] = new short[getSize(pattern)];
+                    ByteBuffer.wrap(bytes).asShortBuffer().get(phase[pattern]);
+                }
+            }
+            return new PatternEvaluator(weights);
+        }
+    }
+
+    /**
+     * Schreibt die Gewichte in eine Binärdatei. Auf einen Header aus
+     * {@link #MAGIC}, {@link #VERSION}, der Anzahl an Phasen und der Größe
+     * jedes Musters folgen die Gewichte als {@code short} im Big Endian
+     * Format, sortiert nach Phase, Muster und Index.
+     *
+     * @param file              Entspricht der zu schreibenden Datei.
+     * @throws IOException      Wird geworfen, falls die Datei nicht
+     *                          geschrieben werden kann.
+     */
+    void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(weights.length);
+            out.writeInt(PATTERNS.length);
+            for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                out.writeInt(getSize(pattern));
+            }
+            for (short[][] phase : weights) {
+                for (short[] table : phase) {
+                    for (short weight : table) {
+                        out.writeShort(weight);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Bewertet eine Spielsituation mit der Summe der Gewichte aller Lagen
+     * aller Muster.
+     *
+     * @param position          Entspricht der zu bewertenden Spielsituation.
+     * @param playerToAssess    Entspricht dem zu bewertenden Spieler.
+     * @return                  Gibt die erwartete Differenz der Steine am
+     *                          Ende des Spiels aus Sicht des Spielers
+     *                          zurück.
+     */
+    @Override
+    public double evaluate(Reversi position, Player playerToAssess) {
+        assert position != null : "Reversi to assess cannot be undefined";
+        assert playerToAssess != null : "Player to asses cannot be undefined";
+
+        return evaluate(position.getDiscs(playerToAssess),
+                position.getDiscs(playerToAssess.inverse()))
+                / (double) WEIGHT_SCALE;
+    }
+
+    /**
+     * Summiert die Gewichte aller Lagen aller Muster.
+     *
+     * @param own           Entspricht den Steinen des zu bewertenden
+     *                      Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @return              Gibt die Summe der Gewichte zurück.
+     */
+    int evaluate(long own, long enemy) {
+        short[][] phase = weights[getPhase(own, enemy, weights.length)];
+        int sum = 0;
+        int view = 0;
+        long ownView = own;
+        long enemyView = enemy;
+        for (int instance = 0; instance < INSTANCE_PATTERNS.length;
+                instance++) {
+            if (INSTANCE_VIEWS[instance] != view) {
+                view = INSTANCE_VIEWS[instance];
+                ownView = view(own, view);
+                enemyView = view(enemy, view);
+            }
+            sum += phase[INSTANCE_PATTERNS[instance]]
+                    [computeIndex(instance, ownView, enemyView)];
+        }
+        return sum;
+    }
+
+    /**
+     * Berechnet für jede Lage jedes Musters den Index in die Tabelle des
+     * Musters. Für Muster mit Symmetrie wird der kleinste umgeordnete Index
+     * zurückgegeben, sodass sich beim Lernen alle umgeordneten Belegungen
+     * ein Gewicht teilen.
+     *
+     * @param own           Entspricht den Steinen des zu bewertenden
+     *                      Spielers.
+     * @param enemy         Entspricht den Steinen des Gegners.
+     * @param indexes       Nimmt pro Lage den Index auf und muss
+     *                      {@link #getNumberOfInstances()} lang sein.
+     */
+    static void computeIndexes(long own, long enemy, int[] indexes) {
+        assert indexes.length == INSTANCE_PATTERNS.length
+                : "Indexes have the wrong length!";
+
+        int view = 0;
+        long ownView = own;
+        long enemyView = enemy;
+        for (int instance = 0; instance < INSTANCE_PATTERNS.length;
+                instance++) {
+            if (INSTANCE_VIEWS[instance] != view) {
+                view = INSTANCE_VIEWS[instance];
+                ownView = view(own, view);
+                enemyView = view(enemy, view);
+            }
+            int index = computeIndex(instance, ownView, enemyView);
+            int[] canonical = CANONICAL_INDEXES[INSTANCE_PATTERNS[instance]];
+            indexes[instance] = canonical != null ? canonical[index] : index;
+        }
+    }
+
+    /**
+     * Berechnet den Index einer Lage eines Musters aus den Zeilen, die die
+     * Lage in ihrer Ansicht berührt.
+     *
+     * @param instance      Entspricht der Lage.
+     * @param own           Entspricht den Steinen des zu bewertenden
+     *                      Spielers in der Ansicht der Lage.
+     * @param enemy         Entspricht den Steinen des Gegners in der
+     *                      Ansicht der Lage.
+     * @return              Gibt den Index in die Tabelle des Musters zurück.
+     */
+    private static int computeIndex(int instance, long own, long enemy) {
+        int index = 0;
+        int row = instance > 0 ? INSTANCE_ENDS[instance - 1] : 0;
+        for (int end = INSTANCE_ENDS[instance]; row < end; row++) {
+            int shift = ROW_SHIFTS[row];
+            int offset = ROW_OFFSETS[row];
+            index += ROW_TABLES[offset + ((int) (own >>> shift) & 0xff)]
+                    + 2 * ROW_TABLES[offset + ((int) (enemy >>> shift) & 0xff)];
+        }
+        return index;
+    }
+
+    /**
+     * Gibt die Phase des Spiels zurück, nach der die Gewichte gewählt
+     * werden. Die Phasen teilen die Anzahl der leeren Felder in gleich
+     * große Bereiche.
+     *
+     * @param own               Entspricht den Steinen des einen Spielers.
+     * @param enemy             Entspricht den Steinen des anderen Spielers.
+     * @param numberOfPhases    Entspricht der Anzahl an Phasen.
+     * @return                  Gibt die Phase zwischen {@code 0} und
+     *                          {@code numberOfPhases - 1} zurück.
+     */
+    static int getPhase(long own, long enemy, int numberOfPhases) {
+        int empties = Long.bitCount(~(own | enemy));
+        return empties * numberOfPhases / (Board.SIZE * Board.SIZE - 3);
+    }
+
+    /**
+     * Gibt die Anzahl an Lagen aller Muster auf dem Spielbrett zurück.
+     *
+     * @return          Gibt die Anzahl an Lagen zurück.
+     */
+    static int getNumberOfInstances() {
+        return INSTANCE_PATTERNS.length;
+    }
+
+    /**
+     * Gibt das Muster einer Lage zurück.
+     *
+     * @param instance      Entspricht der Lage.
+     * @return              Gibt den Index des Musters zurück.
+     */
+    static int getPattern(int instance) {
+        return INSTANCE_PATTERNS[instance];
+    }
+
+    /**
+     * Gibt die Anzahl an Mustern zurück.
+     *
+     * @return          Gibt die Anzahl an Mustern zurück.
+     */
+    static int getNumberOfPatterns() {
+        return PATTERNS.length;
+    }
+
+    /**
+     * Gibt die Anzahl an möglichen Belegungen eines Musters zurück, also
+     * die Größe seiner Tabelle.
+     *
+     * @param pattern       Entspricht dem Index des Musters.
+     * @return              Gibt {@code 3} hoch der Anzahl der Felder zurück.
+     */
+    static int getSize(int pattern) {
+        int size = 1;
+        for (int i = 0; i < PATTERNS[pattern].length; i++) {
+            size *= 3;
+        }
+        return size;
+    }
+
+    /**
+     * Berechnet für ein Muster den kleinsten Index aller Belegungen, die
+     * durch Symmetrien entstehen, die die Felder des Musters auf sich selbst
+     * abbilden und dabei nur ihre Reihenfolge ändern.
+     *
+     * @param squares       Entspricht den Bitindizes der Felder des Musters.
+     * @return              Gibt pro Index den kleinsten umgeordneten Index
+     *                      zurück oder {@code null}, falls keine Symmetrie
+     *                      die Reihenfolge der Felder ändert.
+     */
+    private static int[] getCanonicalIndexes(int[] squares) {
+        List<int[]> permutations = new ArrayList<>();
+        for (int symmetry = 1; symmetry < BitBoard.NUMBER_OF_SYMMETRIES;
+                symmetry++) {
+            int[] permutation = new int[squares.length];
+            boolean identity = true;
+            for (int i = 0; i < squares.length && permutation != null; i++) {
+                int image = BitBoard.transformSquare(squares[i], symmetry);
+                int j = 0;
+                while (j < squares.length && squares[j] != image) {
+                    j++;
+                }
+                if (j == squares.length) {
+                    permutation = null;
+                } else {
+                    permutation[i] = j;
+                    identity &= i == j;
+                }
+            }
+            if (permutation != null && !identity) {
+                permutations.add(permutation);
+            }
+        }
+        if (permutations.isEmpty()) {
+            return null;
+        }
+
+        int[] powers = new int[squares.length];
+        int size = 1;
+        for (int i = 0; i < squares.length; i++) {
+            powers[i] = size;
+            size *= 3;
+        }
+        int[] canonical = new int[size];
+        for (int index = 0; index < size; index++) {
+            canonical[index] = index;
+            for (int[] permutation : permutations) {
+                int permuted = 0;
+                for (int i = 0; i < squares.length; i++) {
+                    permuted += index / powers[i] % 3
+                            * powers[permutation[i]];
+                }
+                canonical[index] = Math.min(canonical[index], permuted);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Gibt die Ansicht zurück, in der die Felder einer Lage die wenigsten
+     * Zeilen berühren.
+     *
+     * @param squares           Entspricht den Bitindizes der Felder.
+     * @param viewSquares       Entspricht pro Ansicht dem Bitindex jedes
+     *                          Feldes in dieser Ansicht.
+     * @return                  Gibt die Ansicht zurück.
+     */
+    private static int getBestView(int[] squares, int[][] viewSquares) {
+        int bestView = 0;
+        int fewestRows = Integer.MAX_VALUE;
+        for (int view = 0; view < NUMBER_OF_VIEWS; view++) {
+            int rows = 0;
+            for (int square : squares) {
+                rows |= 1 << (viewSquares[view][square] / Board.SIZE);
+            }
+            if (Integer.bitCount(rows) < fewestRows) {
+                fewestRows = Integer.bitCount(rows);
+                bestView = view;
+            }
+        }
+        return bestView;
+    }
+
+    /**
+     * Erzeugt für jede Zeile, die eine Lage in einer Ansicht berührt, die
+     * Tabelle mit dem Anteil jeder Belegung der Zeile am Index. Das Feld an
+     * der Stelle {@code i} der Lage zählt dabei {@code 3} hoch {@code i}.
+     *
+     * @param squares       Entspricht den Bitindizes der Felder der Lage.
+     * @param viewSquares   Entspricht dem Bitindex jedes Feldes in der
+     *                      Ansicht.
+     * @param shifts        Nimmt pro Zeile den Shift auf.
+     * @param tables        Nimmt pro Zeile die Tabelle auf.
+     */
+    private static void addRows(int[] squares, int[] viewSquares,
+                                List<Integer> shifts, List<int[]> tables) {
+        for (int row = 0; row < Board.SIZE; row++) {
+            int[] table = new int[ROW_STATES];
+            boolean touched = false;
+            int power = 1;
+            for (int square : squares) {
+                int viewSquare = viewSquares[square];
+                if (viewSquare / Board.SIZE == row) {
+                    touched = true;
+                    for (int state = 0; state < ROW_STATES; state++) {
+                        if ((state >>> (viewSquare % Board.SIZE) & 1) != 0) {
+                            table[state] += power;
+                        }
+                    }
+                }
+                power *= 3;
+            }
+            if (touched) {
+                shifts.add(row * Board.SIZE);
+                tables.add(table);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Steine in einer Ansicht des Spielbretts zurück. In der
+     * gespiegelten Ansicht liegen die Spalten in Zeilen. In den beiden
+     * gedrehten Ansichten liegt jede Diagonale in einer einzigen Zeile,
+     * die sie sich mit höchstens einer anderen Diagonale teilt.
+     *
+     * @param discs     Entspricht den Steinen als Bitmaske.
+     * @param view      Entspricht der Ansicht zwischen {@code 0} und
+     *                  {@link #NUMBER_OF_VIEWS}.
+     * @return          Gibt die Steine in der Ansicht zurück.
+     */
+    private static long view(long discs, int view) {
+        long x = discs;
+        switch (view) {
+        case 1:
+            return BitBoard.transpose(x);
+        case 2:
+            x ^= 0xaaaaaaaaaaaaaaaaL & (x ^ Long.rotateRight(x, 8));
+            x ^= 0xccccccccccccccccL & (x ^ Long.rotateRight(x, 16));
+            x ^= 0xf0f0f0f0f0f0f0f0L & (x ^ Long.rotateRight(x, 32));
+            return x;
+        case 3:
+            x ^= 0x5555555555555555L & (x ^ Long.rotateRight(x, 8));
+            x ^= 0x3333333333333333L & (x ^ Long.rotateRight(x, 16));
+            x ^= 0x0f0f0f0f0f0f0f0fL & (x ^ Long.rotateRight(x, 32));
+            return x;
+        default:
+            return x;
+        }
+    }
+}
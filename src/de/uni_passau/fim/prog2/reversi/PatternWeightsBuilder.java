@@ -0,0 +1,268 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@code PatternWeightsBuilder} ist ein Programm, das offline die Gewichte
+ * für {@code PatternEvaluator} erzeugt. Dazu spielt die Maschine gegen sich
+ * selbst, wobei die ersten Züge und ein Teil der späteren Züge zufällig
+ * gewählt werden, damit die Spielsituationen vielfältig sind. Sobald nur
+ * noch {@link #EXACT_EMPTIES} Felder leer sind, wird das Spiel mit
+ * {@code EndgameSolver} perfekt zu Ende gespielt. Jede Spielsituation der
+ * Partie wird mit der so berechneten Differenz der Steine am Ende des
+ * Spiels beschriftet. Danach werden die Gewichte pro Phase mit dem
+ * stochastischen Gradientenverfahren so angepasst, dass die Summe der
+ * Gewichte diese Differenz möglichst gut vorhersagt.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+public final class PatternWeightsBuilder {
+
+    /**
+     * Entspricht der Anzahl an Phasen, in die das Spiel nach der Anzahl der
+     * leeren Felder geteilt wird.
+     */
+    private static final int NUMBER_OF_PHASES = 6;
+
+    /**
+     * Entspricht der Anzahl an Partien, falls keine angegeben wurde.
+     */
+    private static final int DEFAULT_GAMES = 2000;
+
+    /**
+     * Entspricht der Anzahl an Zügen zu Beginn jeder Partie, die zufällig
+     * gewählt werden.
+     */
+    private static final int RANDOM_PLIES = 8;
+
+    /**
+     * Entspricht der Wahrscheinlichkeit, mit der ein späterer Zug zufällig
+     * statt durch die Suche gewählt wird.
+     */
+    private static final double RANDOM_MOVE_RATE = 0.1;
+
+    /**
+     * Entspricht der Schwierigkeitsstufe der Suche beim Spiel gegen sich
+     * selbst.
+     */
+    private static final int SELF_PLAY_LEVEL = 2;
+
+    /**
+     * Entspricht der Anzahl an leeren Feldern, ab der perfekt gespielt wird.
+     */
+    private static final int EXACT_EMPTIES = 14;
+
+    /**
+     * Entspricht der Anzahl an Durchläufen über alle Spielsituationen.
+     */
+    private static final int EPOCHS = 20;
+
+    /**
+     * Entspricht dem Anteil des Fehlers, um den jedes beteiligte Gewicht
+     * pro Spielsituation angepasst wird.
+     */
+    private static final double LEARNING_RATE = 0.005;
+
+    /**
+     * Entspricht dem Startwert der Zufallszahlen, damit dieselben Gewichte
+     * erneut erzeugt werden können.
+     */
+    private static final long SEED = 1;
+
+    /**
+     * {@code Sample} ist eine beschriftete Spielsituation aus Sicht eines
+     * Spielers.
+     */
+    private static final class Sample {
+
+        /**
+         * Entspricht den Steinen des Spielers.
+         */
+        private final long own;
+
+        /**
+         * Entspricht den Steinen des Gegners.
+         */
+        private final long enemy;
+
+        /**
+         * Entspricht der Differenz der Steine am Ende des Spiels aus Sicht
+         * des Spielers.
+         */
+        private final int discDifferential;
+
+        /**
+         * Kreiert eine beschriftete Spielsituation.
+         *
+         * @param own                   Entspricht den Steinen des Spielers.
+         * @param enemy                 Entspricht den Steinen des Gegners.
+         * @param discDifferential      Entspricht der Differenz der Steine
+         *                              am Ende des Spiels.
+         */
+        private Sample(long own, long enemy, int discDifferential) {
+            this.own = own;
+            this.enemy = enemy;
+            this.discDifferential = discDifferential;
+        }
+    }
+
+    private PatternWeightsBuilder() { }
+
+    /**
+     * Startet das Programm. Der erste Parameter ist die zu schreibende
+     * Datei, der optionale zweite die Anzahl an Partien.
+     *
+     * @param args              Entspricht der Startübergabe des Programms.
+     * @throws IOException      Wird geworfen, falls die Datei nicht
+     *                          geschrieben werden kann.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: PatternWeightsBuilder <file> [games]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1])
+                                    : DEFAULT_GAMES;
+
+        Random random = new Random(SEED);
+        List<Sample> samples = new ArrayList<>();
+        for (int game = 1; game <= games; game++) {
+            playGame(random, samples);
+            if (game % 100 == 0) {
+                System.out.printf("%d games, %d positions%n", game,
+                        samples.size());
+            }
+        }
+        train(samples, random).save(file);
+        System.out.println("Weights written to " + file);
+    }
+
+    /**
+     * Spielt eine Partie der Maschine gegen sich selbst und fügt alle
+     * Spielsituationen der Partie aus Sicht beider Spieler hinzu.
+     *
+     * @param random        Entspricht den Zufallszahlen für die Wahl der
+     *                      zufälligen Züge.
+     * @param samples       Nimmt die beschrifteten Spielsituationen auf.
+     */
+    private static void playGame(Random random, List<Sample> samples) {
+        List<Reversi> history = new ArrayList<>();
+        Reversi position = new Reversi(Player.HUMAN);
+        Integer result = null;
+        int ply = 0;
+        while (!position.gameOver()) {
+            history.add(position);
+            int empties = Board.SIZE * Board.SIZE
+                    - position.getNumberOfHumanTiles()
+                    - position.getNumberOfMachineTiles();
+            if (empties <= EXACT_EMPTIES) {
+                EndgameSolver solver = new EndgameSolver(position);
+                Reversi move = solver.solveExact(Long.MAX_VALUE);
+                if (result == null) {
+                    int differential = solver.getDiscDifferential();
+                    result = position.next() == Player.HUMAN ? differential
+                                                             : -differential;
+                }
+                position = move;
+            } else if (ply < RANDOM_PLIES
+                    || random.nextDouble() < RANDOM_MOVE_RATE) {
+                long moves = position.legalMoves(position.next());
+                for (int i = random.nextInt(Long.bitCount(moves)); i > 0;
+                        i--) {
+                    moves &= moves - 1;
+                }
+                position = position.moveForNextPlayer(
+                        Long.numberOfTrailingZeros(moves));
+            } else {
+                position = new Search(position, SearchMode.ALPHA_BETA, null)
+                        .calculateBestMove(SELF_PLAY_LEVEL);
+            }
+            ply++;
+        }
+        if (result == null) {
+            result = position.getNumberOfHumanTiles()
+                    - position.getNumberOfMachineTiles();
+        }
+
+        for (Reversi reversi : history) {
+            long human = reversi.getDiscs(Player.HUMAN);
+            long machine = reversi.getDiscs(Player.MACHINE);
+            samples.add(new Sample(human, machine, result));
+            samples.add(new Sample(machine, human, -result));
+        }
+    }
+
+    /**
+     * Passt die Gewichte an die beschrifteten Spielsituationen an, wobei
+     * jede Phase eigene Gewichte erhält. Nach jedem Durchlauf wird der
+     * mittlere Fehler ausgegeben.
+     *
+     * @param samples       Entspricht den beschrifteten Spielsituationen.
+     * @param random        Entspricht den Zufallszahlen für die Reihenfolge
+     *                      der Spielsituationen.
+     * @return              Gibt die Bewertung mit den gerundeten Gewichten
+     *                      zurück.
+     */
+    private static PatternEvaluator train(List<Sample> samples,
+                                          Random random) {
+        int numberOfPatterns = PatternEvaluator.getNumberOfPatterns();
+        int numberOfInstances = PatternEvaluator.getNumberOfInstances();
+        double[][][] weights
+                = new double[NUMBER_OF_PHASES][numberOfPatterns][];
+        for (double[][] phase : weights) {
+            for (int pattern = 0; pattern < numberOfPatterns; pattern++) {
+                phase[pattern]
+                        = new double[PatternEvaluator.getSize(pattern)];
+            }
+        }
+
+        int[] indexes = new int[numberOfInstances];
+        for (int epoch = 1; epoch <= EPOCHS; epoch++) {
+            Collections.shuffle(samples, random);
+            double squaredError = 0;
+            for (Sample sample : samples) {
+                double[][] phase = weights[PatternEvaluator.getPhase(
+                        sample.own, sample.enemy, NUMBER_OF_PHASES)];
+                PatternEvaluator.computeIndexes(sample.own, sample.enemy,
+                        indexes);
+                double prediction = 0;
+                for (int i = 0; i < numberOfInstances; i++) {
+                    prediction += phase[PatternEvaluator.getPattern(i)]
+                            [indexes[i]];
+                }
+                double error = sample.discDifferential - prediction;
+                squaredError += error * error;
+                for (int i = 0; i < numberOfInstances; i++) {
+                    phase[PatternEvaluator.getPattern(i)][indexes[i]]
+                            += LEARNING_RATE * error;
+                }
+            }
+            System.out.printf("epoch %d: mean error %.2f discs%n", epoch,
+                    Math.sqrt(squaredError / samples.size()));
+        }
+
+        short[][][] result = new short[NUMBER_OF_PHASES][numberOfPatterns][];
+        for (int phase = 0; phase < NUMBER_OF_PHASES; phase++) {
+            for (int pattern = 0; pattern < numberOfPatterns; pattern++) {
+                double[] trained = weights[phase][pattern];
+                result[phase][pattern] = new short[trained.length];
+                for (int index = 0; index < trained.length; index++) {
+                    long weight = Math.round(trained[index]
+                            * PatternEvaluator.WEIGHT_SCALE);
+                    result[phase][pattern][index] = (short) Math.max(
+                            Short.MIN_VALUE,
+                            Math.min(Short.MAX_VALUE, weight));
+                }
+            }
+        }
+        return new PatternEvaluator(result);
+    }
+}
@@ -0,0 +1,150 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * {@code Perft} zählt alle Spielsituationen, die eine feste Anzahl an Zügen
+ * von einer Spielsituation entfernt liegen. Dabei werden nur die
+ * Zuggenerierung und das Aussetzen von {@code Reversi} verwendet, ohne
+ * Bewertung. Bekannte Zahlen dienen so als Prüfung der Zuggenerierung und
+ * die Dauer als Messung ihrer Geschwindigkeit. Wie üblich zählt ein
+ * erzwungenes Aussetzen als eigener Zug und eine Spielsituation, in der das
+ * Spiel vor der geforderten Tiefe vorbei ist, zählt einmal. Von der
+ * Anfangsstellung ergeben sich so für die Tiefen 1 bis 11 die Zahlen 4, 12,
+ * 56, 244, 1396, 8200, 55092, 390216, 3005288, 24571284 und 212258800.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class Perft {
+
+    private Perft() { }
+
+    /**
+     * Zählt die Spielsituationen in einem Thread.
+     *
+     * @param position      Entspricht der Ausgangsspielsituation, die nicht
+     *                      verändert wird.
+     * @param depth         Entspricht der Anzahl der Züge.
+     * @return              Gibt die Anzahl der Spielsituationen zurück.
+     * @see                 #countMoves(Reversi, int)
+     */
+    static long count(Reversi position, int depth) {
+        assert position != null : "The position cannot be undefined!";
+        assert depth >= 0 : "Depth cannot be negative!";
+
+        return countMoves(position.clone(), depth);
+    }
+
+    /**
+     * Zählt die Spielsituationen, wobei die Züge der Ausgangsspielsituation
+     * bei mehr als einem Thread auf einen eigenen Pool verteilt werden, der
+     * danach wieder beendet wird.
+     *
+     * @param position      Entspricht der Ausgangsspielsituation, die nicht
+     *                      verändert wird.
+     * @param depth         Entspricht der Anzahl der Züge.
+     * @param threads       Entspricht der Anzahl an Threads.
+     * @return              Gibt die Anzahl der Spielsituationen zurück.
+     * @see                 #count(Reversi, int, ForkJoinPool)
+     */
+    static long count(Reversi position, int depth, int threads) {
+        assert threads > 0 : "Number of threads cannot be negative or 0!";
+
+        if (threads == 1) {
+            return count(position, depth);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return count(position, depth, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Zählt die Spielsituationen, wobei die Züge der Ausgangsspielsituation
+     * auf die Threads eines Pools verteilt werden. Jeder Zug wird auf einem
+     * eigenen Klon gezählt.
+     *
+     * @param position      Entspricht der Ausgangsspielsituation, die nicht
+     *                      verändert wird.
+     * @param depth         Entspricht der Anzahl der Züge.
+     * @param pool          Entspricht den Threads.
+     * @return              Gibt die Anzahl der Spielsituationen zurück.
+     */
+    private static long count(Reversi position, int depth,
+            ForkJoinPool pool) {
+        assert position != null : "The position cannot be undefined!";
+        assert depth >= 0 : "Depth cannot be negative!";
+        assert pool != null : "The pool cannot be undefined!";
+
+        if (depth == 0 || position.gameOver()) {
+            return 1;
+        }
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+        for (long moves = position.legalMoves(position.next()); moves != 0;
+                moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            tasks.add(ForkJoinTask.adapt(() -> {
+                Reversi copy = position.clone();
+                return countMove(copy, square, depth);
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        long count = 0;
+        for (ForkJoinTask<Long> task : tasks) {
+            count += task.join();
+        }
+        return count;
+    }
+
+    /**
+     * Zählt die Spielsituationen, wobei die Züge direkt auf dem Spielfeld
+     * ausgeführt und wieder rückgängig gemacht werden.
+     *
+     * @param position      Entspricht der Spielsituation.
+     * @param depth         Entspricht der Anzahl der verbleibenden Züge.
+     * @return              Gibt die Anzahl der Spielsituationen zurück.
+     */
+    private static long countMoves(Reversi position, int depth) {
+        if (depth == 0 || position.gameOver()) {
+            return 1;
+        }
+        long count = 0;
+        for (long moves = position.legalMoves(position.next()); moves != 0;
+                moves &= moves - 1) {
+            count += countMove(position, Long.numberOfTrailingZeros(moves),
+                    depth);
+        }
+        return count;
+    }
+
+    /**
+     * Zählt die Spielsituationen nach einem Zug. Muss der Gegner danach
+     * aussetzen, zählt das Aussetzen als weiterer Zug.
+     *
+     * @param position      Entspricht der Spielsituation vor dem Zug, die
+     *                      danach wiederhergestellt ist.
+     * @param square        Entspricht dem Bitindex des legalen Zuges.
+     * @param depth         Entspricht der Anzahl der verbleibenden Züge
+     *                      einschließlich dieses Zuges.
+     * @return              Gibt die Anzahl der Spielsituationen zurück.
+     */
+    private static long countMove(Reversi position, int square, int depth) {
+        Player player = position.next();
+        position.makeMove(square);
+        int remaining = depth - 1;
+        if (remaining > 0 && !position.gameOver()
+                && position.next() == player) {
+            remaining--;
+        }
+        long count = countMoves(position, remaining);
+        position.undoMove();
+        return count;
+    }
+}
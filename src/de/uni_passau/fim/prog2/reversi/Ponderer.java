@@ -0,0 +1,293 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.List;
+
+/**
+ * {@code Ponderer} nutzt die Bedenkzeit des Menschen, indem ein eigener
+ * Thread die Antworten der Maschine auf die wahrscheinlichsten Züge des
+ * Menschen im Voraus berechnet. Die Züge des Menschen werden nacheinander
+ * durchsucht, jeweils so, wie es {@link Reversi#machineMove()} mit derselben
+ * Tiefe bzw demselben Zeitlimit täte. Zieht der Mensch, wird eine fertige
+ * Antwort direkt übernommen und auf eine gerade laufende Suche nach der
+ * Antwort auf seinen Zug gewartet. Läuft gerade eine andere Suche, wird sie
+ * abgebrochen und direkt die Antwort auf seinen Zug berechnet, sodass der
+ * Zug der Maschine höchstens so lange dauert wie ohne Vorausberechnung.
+ * Auch eine abgebrochene Suche hat die gemeinsame Transpositionstabelle
+ * gefüllt, von der die folgende Suche profitiert.
+ *
+ * <p>Die Transpositionstabelle wird nur vom Thread der Vorausberechnung
+ * verwendet, bis {@link #finish(Reversi)} oder {@link #cancel()} ihn
+ * beendet hat. Die Ergebnisse werden erst danach gelesen.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class Ponderer {
+
+    /**
+     * Entspricht der Spielsituation, in der der Mensch am Zug ist.
+     */
+    private final Reversi position;
+
+    /**
+     * Entspricht den Spielsituationen nach den Zügen des Menschen, in der
+     * Reihenfolge, in der sie durchsucht werden.
+     */
+    private final Reversi[] replies;
+
+    /**
+     * Entspricht den berechneten Antworten der Maschine auf
+     * {@link #replies}. Ist {@code null}, solange keine Antwort berechnet
+     * wurde.
+     */
+    private final Reversi[] moves;
+
+    /**
+     * Entspricht den Kennzahlen der Suchen der Antworten.
+     */
+    private final SearchStatistics[] statistics;
+
+    /**
+     * Entspricht der Tiefe der Suchen oder {@code 0}, falls mit Zeitlimit
+     * gesucht wird.
+     */
+    private final int level;
+
+    /**
+     * Entspricht dem Zeitlimit jeder Suche in Millisekunden oder {@code 0},
+     * falls bis zur Tiefe {@link #level} gesucht wird.
+     */
+    private final int timeLimit;
+
+    /**
+     * Entspricht der Transpositionstabelle der Suchen.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Entspricht dem Thread der Vorausberechnung.
+     */
+    private final Thread thread;
+
+    /**
+     * Entspricht der laufenden Suche oder {@code null}, falls gerade keine
+     * Suche läuft.
+     */
+    private volatile Search currentSearch;
+
+    /**
+     * Entspricht dem Index der Antwort, die {@link #currentSearch}
+     * berechnet.
+     */
+    private volatile int currentIndex;
+
+    /**
+     * Entspricht dem Wert von {@link #targetIndex}, solange der Mensch noch
+     * nicht gezogen hat.
+     */
+    private static final int PONDERING = -2;
+
+    /**
+     * Entspricht dem Index der Antwort auf den Zug des Menschen, die als
+     * einzige noch berechnet werden soll, {@code -1}, falls keine Antwort
+     * mehr berechnet werden soll, oder {@link #PONDERING}.
+     */
+    private volatile int targetIndex = PONDERING;
+
+    /**
+     * Kreiert eine Vorausberechnung, ohne sie zu starten.
+     *
+     * @param position      Entspricht der Spielsituation, in der der Mensch
+     *                      am Zug ist.
+     * @param replies       Entspricht den Spielsituationen nach den Zügen des
+     *                      Menschen, in denen die Maschine am Zug ist, in der
+     *                      Reihenfolge, in der sie durchsucht werden.
+     * @param level         Entspricht der Tiefe der Suchen oder {@code 0},
+     *                      falls mit Zeitlimit gesucht wird.
+     * @param timeLimit     Entspricht dem Zeitlimit jeder Suche in
+     *                      Millisekunden oder {@code 0}.
+     * @param table         Entspricht der Transpositionstabelle der Suchen.
+     */
+    Ponderer(Reversi position, List<Reversi> replies, int level,
+             int timeLimit, TranspositionTable table) {
+        assert position != null : "The position cannot be undefined!";
+        assert (level > 0) != (timeLimit > 0)
+                : "Either level or time limit must be set!";
+        assert table != null : "The table cannot be undefined!";
+
+        this.position = position;
+        this.replies = replies.toArray(new Reversi[0]);
+        moves = new Reversi[this.replies.length];
+        statistics = new SearchStatistics[this.replies.length];
+        this.level = level;
+        this.timeLimit = timeLimit;
+        this.table = table;
+        thread = new Thread(this::ponder, "ponderer");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Startet den Thread der Vorausberechnung.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Gibt zurück, ob diese Vorausberechnung für eine Spielsituation
+     * gestartet wurde.
+     *
+     * @param other         Entspricht der Spielsituation, in der der Mensch
+     *                      am Zug ist.
+     * @return              Gibt {@code true} zurück, falls die Steine beider
+     *                      Spielsituationen übereinstimmen.
+     */
+    boolean isPondering(Reversi other) {
+        return samePosition(position, other);
+    }
+
+    /**
+     * Beendet die Vorausberechnung, nachdem der Mensch gezogen hat. Wird die
+     * Antwort auf den Zug gerade berechnet, wird auf das Ende dieser Suche
+     * gewartet. Andernfalls wird die laufende Suche abgebrochen und, falls
+     * die Antwort noch nicht berechnet ist, sofort mit ihr fortgesetzt. Mit
+     * Zeitlimit wartet diese Methode somit höchstens etwa ein Zeitlimit.
+     *
+     * @param reply         Entspricht der Spielsituation nach dem Zug des
+     *                      Menschen.
+     * @return              Gibt den Index der Antwort für
+     *                      {@link #getMove(int)} zurück oder {@code -1},
+     *                      falls die Antwort nicht berechnet wurde.
+     */
+    int finish(Reversi reply) {
+        int index = -1;
+        for (int i = 0; i < replies.length && index < 0; i++) {
+            if (samePosition(replies[i], reply)) {
+                index = i;
+            }
+        }
+        targetIndex = index;
+        Search search = currentSearch;
+        if (search != null && currentIndex != index) {
+            search.stop();
+        }
+        join();
+        if (index >= 0 && moves[index] != null) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Bricht die Vorausberechnung ab und wartet, bis ihr Thread beendet ist.
+     */
+    void cancel() {
+        finish(null);
+    }
+
+    /**
+     * Gibt die berechnete Antwort der Maschine zurück.
+     *
+     * @param index         Entspricht dem Index nach {@link #finish(Reversi)}.
+     * @return              Gibt die Antwort, ausgeführt auf einem Klon,
+     *                      zurück.
+     */
+    Reversi getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Gibt die Kennzahlen der Suche einer Antwort zurück.
+     *
+     * @param index         Entspricht dem Index nach {@link #finish(Reversi)}.
+     * @return              Gibt die Kennzahlen zurück.
+     */
+    SearchStatistics getStatistics(int index) {
+        return statistics[index];
+    }
+
+    /**
+     * Durchsucht die Antworten nacheinander, bis alle berechnet sind oder
+     * die Vorausberechnung beendet wird. Ist die Antwort auf den Zug des
+     * Menschen bekannt, wird direkt zu ihr gesprungen. Nach dem Setzen von
+     * {@link #currentSearch} wird {@link #targetIndex} erneut gelesen, sodass
+     * entweder {@link #finish(Reversi)} die neue Suche abbricht oder diese
+     * den Zug des Menschen berücksichtigt.
+     */
+    private void ponder() {
+        int i = 0;
+        while (i < replies.length) {
+            int target = targetIndex;
+            if (target != PONDERING) {
+                if (target < i) {
+                    break;
+                }
+                i = target;
+            }
+            Search search = new Search(replies[i], SearchMode.ALPHA_BETA,
+                    table);
+            currentIndex = i;
+            currentSearch = search;
+            if (targetIndex != target) {
+                continue;
+            }
+
+            table.newSearch();
+            int move;
+            if (timeLimit > 0) {
+                long deadline = System.nanoTime() + timeLimit * 1_000_000L;
+                move = search.searchDeepening(1, 1, Long.MAX_VALUE);
+                int deeperMove = search.searchDeepening(2,
+                        search.getNumberOfEmptyFields(), deadline);
+                if (deeperMove >= 0) {
+                    move = deeperMove;
+                }
+            } else {
+                move = search.searchDeepening(level, level, Long.MAX_VALUE);
+            }
+            if (move >= 0) {
+                moves[i] = replies[i].moveForNextPlayer(move);
+                statistics[i] = search.getStatistics();
+            }
+            if (target != PONDERING) {
+                break;
+            }
+            i++;
+        }
+        currentSearch = null;
+    }
+
+    /**
+     * Wartet, bis der Thread der Vorausberechnung beendet ist.
+     */
+    private void join() {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gibt zurück, ob zwei Spielsituationen dieselben Steine haben.
+     *
+     * @param first         Entspricht der ersten Spielsituation.
+     * @param second        Entspricht der zweiten Spielsituation oder
+     *                      {@code null}.
+     * @return              Gibt {@code true} zurück, falls die Steine
+     *                      übereinstimmen.
+     */
+    private static boolean samePosition(Reversi first, Reversi second) {
+        return second != null
+                && first.getDiscs(Player.HUMAN)
+                    == second.getDiscs(Player.HUMAN)
+                && first.getDiscs(Player.MACHINE)
+                    == second.getDiscs(Player.MACHINE);
+    }
+}
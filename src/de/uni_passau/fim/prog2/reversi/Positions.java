@@ -0,0 +1,82 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code Positions} stellt die Mittelspielsituationen bereit, auf denen die
+ * Benchmarks messen und die Tests die parallelen Suchen mit {@code Search}
+ * vergleichen. Die Spielsituationen wurden aus Partien gegen die
+ * Maschine mit Level {@code 4} aufgezeichnet und sind als Zugfolgen ab der
+ * Anfangsstellung gespeichert, sodass sie unabhängig von der internen
+ * Darstellung des Spielfelds bleiben. In allen Spielsituationen ist der
+ * Mensch am Zug.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class Positions {
+
+    /**
+     * Entspricht den Zugfolgen der Partien mit 20 bis 34 Zügen. Jeder Zug
+     * besteht aus der Spalte {@code a} bis {@code h} und der Zeile
+     * {@code 1} bis {@code 8}, wobei die Zeile {@code 1} oben liegt.
+     */
+    private static final String[] GAMES = {
+        "f5f6e6f4g5h6g3f3d3h3g7e7g6h8d7c6g8f8b5h7",
+        "f5f6f7f4d3f8g4h3g5f3g6h6g2c4b5h1c3b4f2f1e3b3",
+        "f5f6c4c3f7c5b2f4b5a1f3a6b3c6a5a4b7c7d7a8d3e8e7c8",
+        "f5f6e6f4d3e7f3c4c6f2g4h4b5b4g6g5h5h6g2e3e2h1d7a6c5f1",
+        "f5f6d3c3c4f4b3b4c5d2e2c6d6d7c2c1b2a1c7c8a5a3d8e8b7a8b6f1",
+        "f5f6c4c3e6c5b2a1f7g8f8e8b3a2e7e3b5a6e2g5b6c6a7a8d6c7b4d3g6h6",
+        "f5f6f7f4f3g4c3f8e3e2g5e6e7e8g8h8h3h4f2h2d6f1h5h6g7h7d3c4d7g6d2c6",
+        "f5f6d3c3f7e3f3g3e6e7c2g5h3f8h5h4e8d8g7h8b3h6g8f2e2a3d7f1a4d6g2h1c5h2"
+    };
+
+    /**
+     * Entspricht der Anzahl der Spielsituationen.
+     */
+    static final int SIZE = 8;
+
+    /**
+     * Entspricht der Summe der legalen Züge aller Spielsituationen, also der
+     * Anzahl der Spielsituationen, die einen Zug weiter liegen.
+     */
+    static final int NUMBER_OF_MOVES = 70;
+
+    private Positions() { }
+
+    /**
+     * Spielt die aufgezeichneten Partien nach. Jede Partie erhält ein
+     * eigenes Spiel mit den Standardeinstellungen.
+     *
+     * @return                          Gibt die Spielsituationen am Ende der
+     *                                  Partien zurück.
+     * @throws IllegalStateException    Wird geworfen, falls ein Zug nicht
+     *                                  legal ist oder die Spielsituationen
+     *                                  nicht zu {@link #NUMBER_OF_MOVES}
+     *                                  passen.
+     */
+    static Reversi[] load() {
+        assert GAMES.length == SIZE : "Number of games does not match!";
+
+        Reversi[] positions = new Reversi[SIZE];
+        int numberOfMoves = 0;
+        for (int i = 0; i < SIZE; i++) {
+            Reversi position = new Reversi(Player.HUMAN);
+            for (int j = 0; j < GAMES[i].length(); j += 2) {
+                int col = GAMES[i].charAt(j) - 'a' + 1;
+                int row = GAMES[i].charAt(j + 1) - '0';
+                position = position.moveForNextPlayer(row, col);
+                if (position == null) {
+                    throw new IllegalStateException("Illegal move in game "
+                            + i + " at " + GAMES[i].substring(j, j + 2) + "!");
+                }
+            }
+            positions[i] = position;
+            numberOfMoves += position.numberOfLegalMoves(position.next());
+        }
+        if (numberOfMoves != NUMBER_OF_MOVES) {
+            throw new IllegalStateException("Positions have " + numberOfMoves
+                    + " moves instead of " + NUMBER_OF_MOVES + "!");
+        }
+        return positions;
+    }
+}
@@ -1,7 +1,7 @@
 package de.uni_passau.fim.prog2.reversi;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Die Klasse {@code Reversi} implementiert ein strategisches Brettspiel
@@ -11,20 +11,41 @@ import java.util.List;
  * des Bots werden aufwändig ermittelt. Das Spiel implementiert {@code Board},
  * mit dessen Funktionalität das Spiel gespielt werden kann.
  *
+ * <p>Ein Spiel ist nicht threadsicher. Auch lesende Methoden wie
+ * {@link #next()}, {@link #gameOver()} und {@link #legalMoves(Player)}
+ * verändern das Objekt, da sie den nächsten Spieler erst bei Bedarf
+ * berechnen und die legalen Züge zwischenspeichern. Ein Spiel teilt seine
+ * {@link Engine} mit seinen Klonen und den mit {@link #newGame(Player)}
+ * begonnenen Spielen. Nur Spiele mit eigenem Konstruktoraufruf dürfen von
+ * verschiedenen Threads gleichzeitig gespielt werden.
+ *
  * @version 21.12.19
  * @author -----
  */
 public class Reversi implements Board {
 
     /**
-     * Entspricht dem Spielfeld.
+     * Entspricht den Steinen des menschlichen Spielers auf dem Spielfeld als
+     * Bitmaske.
+     *
+     * @see BitBoard
      */
-    private Player[][] gameBoard;
+    private long humanDiscs;
 
     /**
-     * Entspricht der momentanen Schwierigkeitsstufe der Maschine.
+     * Entspricht den Steinen der Maschine auf dem Spielfeld als Bitmaske.
+     *
+     * @see BitBoard
      */
-    private static int level = 3;
+    private long machineDiscs;
+
+    /**
+     * Entspricht den Einstellungen und dem Zustand der Maschine, die sich
+     * das Spiel mit allen seinen Klonen teilt.
+     *
+     * @see Engine
+     */
+    private final Engine engine;
 
     /**
      * Entspricht dem Spieler, der das Spiel eröffnet hat.
@@ -44,36 +65,134 @@ public class Reversi implements Board {
     private boolean gameOver;
 
     /**
-     * Entspricht der Anzahl an Steinen des menschlichen Spielers auf dem Feld.
+     * Entspricht {@code true}, falls nach einem Zug der Suche der nächste
+     * Spieler noch nicht berechnet wurde. {@link #nextPlayer} entspricht
+     * dann noch dem Spieler, der zuletzt gezogen hat.
+     *
+     * @see #resolveNextPlayer()
+     */
+    private boolean nextPlayerPending;
+
+    /**
+     * Entspricht dem Zobrist Hash aller Steine, der bei jedem Zug
+     * inkrementell aktualisiert wird.
+     *
+     * @see Zobrist
+     */
+    private long hash;
+
+    /**
+     * Entspricht der Summe der Scores aller Felder des Menschen, die bei
+     * jedem Zug inkrementell aktualisiert wird.
+     *
+     * @see Score#getFieldScore(int)
+     */
+    private int humanFieldScore;
+
+    /**
+     * Entspricht der Summe der Scores aller Felder der Maschine, die bei
+     * jedem Zug inkrementell aktualisiert wird.
+     *
+     * @see Score#getFieldScore(int)
+     */
+    private int machineFieldScore;
+
+    /**
+     * Entspricht dem Wert von {@link #humanMoves} und {@link #machineMoves},
+     * solange die legalen Züge noch nicht berechnet wurden. Da besetzte
+     * Felder nie legale Züge sind, kann dieser Wert nicht als Ergebnis
+     * auftreten.
+     */
+    private static final long UNKNOWN_MOVES = -1L;
+
+    /**
+     * Entspricht den zwischengespeicherten legalen Zügen des Menschen oder
+     * {@link #UNKNOWN_MOVES}.
+     *
+     * @see #legalMoves(Player)
+     */
+    private long humanMoves = UNKNOWN_MOVES;
+
+    /**
+     * Entspricht den zwischengespeicherten legalen Zügen der Maschine oder
+     * {@link #UNKNOWN_MOVES}.
+     *
+     * @see #legalMoves(Player)
+     */
+    private long machineMoves = UNKNOWN_MOVES;
+
+    /**
+     * Entspricht den Einträgen zum Rückgängigmachen der direkt auf dem
+     * Spielfeld ausgeführten Züge, wobei pro Suchtiefe ein Eintrag angelegt
+     * und danach wiederverwendet wird. Ist {@code null}, solange das Spiel
+     * nicht als Suchstellung verwendet wurde.
+     *
+     * @see #makeMove(int)
+     * @see #undoMove()
      */
-    private int numberOfHumanTiles = 2;
+    private UndoRecord[] history;
 
     /**
-     * Entspricht der Anzahl an Steinen der Maschine auf dem Feld.
+     * Entspricht der Anzahl an Zügen, die momentan rückgängig gemacht werden
+     * können.
      */
-    private int numberOfMachineTiles = 2;
+    private int historySize;
 
     /**
-     * Erstellt ein Spiel, wobei der Eröffner gesetzt werden kann und die
-     * Schwierigkeitsstufe des alten Spiels erhalten bleibt bzw bei dem ersten
-     * Spiel gleich {@code 3} ist.
+     * Erstellt ein Spiel, wobei der Eröffner gesetzt werden kann. Das Spiel
+     * erhält eine eigene {@code Engine} mit den Standardeinstellungen, also
+     * unter anderem dem Level {@code 3}, sodass es unabhängig von allen
+     * anderen Spielen ist.
      *
      * @param  firstPlayer                  Entspricht dem Eröffner des Spiels.
      * @throws IllegalArgumentException     Wird geworfen, falls der Eröffner
      *                                      {@code null} ist.
      * @see                                 #setInitialPosition()
+     * @see                                 #newGame(Player)
      */
     public Reversi(Player firstPlayer) {
+        this(firstPlayer, new Engine());
+    }
+
+    /**
+     * Erstellt ein Spiel, das die Einstellungen und den Zustand der Maschine
+     * mit einer bestehenden {@code Engine} teilt.
+     *
+     * @param  firstPlayer                  Entspricht dem Eröffner des Spiels.
+     * @param  engine                       Entspricht der {@code Engine}.
+     * @throws IllegalArgumentException     Wird geworfen, falls der Eröffner
+     *                                      {@code null} ist.
+     */
+    private Reversi(Player firstPlayer, Engine engine) {
         if (firstPlayer != null) {
-            gameBoard = new Player[Board.SIZE][Board.SIZE];
             this.firstPlayer = firstPlayer;
             nextPlayer = firstPlayer;
             setInitialPosition();
+            this.engine = engine;
         } else {
             throw new IllegalArgumentException("FirstPlayer is undefined!");
         }
     }
 
+    /**
+     * Erstellt ein neues Spiel, das die Einstellungen dieses Spiels
+     * übernimmt. Die {@code Engine} wird an das neue Spiel weitergegeben,
+     * wobei ihre Transpositionstabelle ein neues Spiel beginnt.
+     *
+     * @param  firstPlayer                  Entspricht dem Eröffner des neuen
+     *                                      Spiels.
+     * @return                              Gibt das neue Spiel zurück.
+     * @throws IllegalArgumentException     Wird geworfen, falls der Eröffner
+     *                                      {@code null} ist.
+     * @see                                 Engine#newGame()
+     */
+    @Override
+    public Reversi newGame(Player firstPlayer) {
+        Reversi game = new Reversi(firstPlayer, engine);
+        engine.newGame();
+        return game;
+    }
+
     /**
      * Gibt den Spieler zurück, der das Spiel eröffnet hat.
      *
@@ -92,6 +211,7 @@ public class Reversi implements Board {
      */
     @Override
     public Player next() {
+        resolveNextPlayer();
         return nextPlayer;
     }
 
@@ -141,7 +261,15 @@ public class Reversi implements Board {
     /**
      * Berechnet den besten Zug für die Maschine und führt diesen auf einem
      * Klon aus, falls die Maschine an der Reihe ist und das Spiel nicht
-     * vorbei ist.
+     * vorbei ist. Falls ein Zeitlimit gesetzt ist, wird so tief gesucht, wie
+     * es die Zeit erlaubt, andernfalls bis zur Tiefe des Levels. Sind nur
+     * noch wenige Felder leer, wird das Spiel stattdessen exakt zu Ende
+     * gerechnet. Mit Zeitlimit wird bei einigen leeren Feldern mehr nur
+     * berechnet, ob die Maschine gewinnt, und falls auch das nicht in der
+     * Zeit gelingt, doch mit {@code Score} gesucht. Steht die
+     * Spielsituation in einem gesetzten Eröffnungsbuch, wird der Zug des
+     * Buchs ohne Suche gespielt. Wurde der Zug während der Bedenkzeit des
+     * Menschen bereits berechnet, wird er übernommen.
      *
      * @return                          Entspricht dem Klon, auf dem der Zug
      *                                  ausgeführt wurde.
@@ -151,14 +279,16 @@ public class Reversi implements Board {
      * @see                             #gameOver()
      * @see                             #next()
      * @see                             IllegalMoveException
-     * @see                             Tree
+     * @see                             Search
+     * @see                             EndgameSolver
+     * @see                             OpeningBook
+     * @see                             #ponder()
      */
     @Override
     public Reversi machineMove() {
         if (!gameOver()) {
             if (next() == Player.MACHINE) {
-                Tree tree = new Tree(this, Reversi.level);
-                return tree.calculateBestMove();
+                return engine.machineMove(this);
             } else {
                 throw new IllegalMoveException("Human Turn!");
             }
@@ -167,6 +297,59 @@ public class Reversi implements Board {
         }
     }
 
+    /**
+     * Startet die Vorausberechnung der Antworten der Maschine, falls der
+     * Mensch am Zug ist. Die Züge des Menschen werden in absteigender
+     * Reihenfolge ihrer Bewertung aus Sicht des Menschen durchsucht, wobei
+     * Züge ausgelassen werden, auf die die Maschine aus dem Eröffnungsbuch
+     * oder exakt antworten würde. Eine Vorausberechnung für dieselbe
+     * Spielsituation läuft weiter, jede andere wird abgebrochen.
+     *
+     * @see                     Ponderer
+     */
+    @Override
+    public void ponder() {
+        engine.ponder(this);
+    }
+
+    /**
+     * Bricht eine laufende Vorausberechnung der Maschine ab und wartet, bis
+     * sie beendet ist.
+     *
+     * @see                     #ponder()
+     */
+    @Override
+    public void stopPondering() {
+        engine.stopPondering();
+    }
+
+    /**
+     * Zählt alle Spielsituationen, die {@code depth} Züge von diesem
+     * Spielfeld entfernt liegen, wobei ein erzwungenes Aussetzen als Zug
+     * zählt. Bei mehr als einem Thread werden die Züge dieses Spielfelds auf
+     * eigene Threads verteilt, die danach wieder beendet werden.
+     *
+     * @param depth                         Entspricht der Anzahl der Züge
+     *                                      und darf nicht negativ sein.
+     * @param threads                       Entspricht der Anzahl an Threads
+     *                                      und muss positiv sein.
+     * @return                              Gibt die Anzahl der
+     *                                      Spielsituationen zurück.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code depth} negativ oder
+     *                                      {@code threads} nicht positiv ist.
+     * @see                                 Perft
+     */
+    @Override
+    public long perft(int depth, int threads) {
+        if (depth >= 0 && threads > 0) {
+            return Perft.count(this, depth, threads);
+        } else {
+            throw new IllegalArgumentException("Depth is negative or number"
+                    + " of threads is negative or 0!");
+        }
+    }
+
     /**
      * Setzt die Schwierigkeitsstufe auf einen neuen Wert, der positiv sein
      * muss. Das Level kann beliebig schwierig gesetzt werden, wobei die
@@ -181,12 +364,233 @@ public class Reversi implements Board {
     @Override
     public void setLevel(int level) {
         if (level > 0) {
-            Reversi.level = level;
+            engine.setLevel(level);
         } else {
             throw new IllegalArgumentException("Level is negative or 0!");
         }
     }
 
+    /**
+     * Setzt die Zeit, die die Maschine für einen Zug suchen darf. Die Suche
+     * wird dann mit iterativer Vertiefung durchgeführt, wodurch die Dauer
+     * eines Zuges unabhängig von der Spielsituation ist. Mit {@code 0} wird
+     * wieder bis zur festen Tiefe des Levels gesucht.
+     *
+     * @param milliseconds                  Entspricht der Zeit pro Zug in
+     *                                      Millisekunden, darf nicht negativ
+     *                                      sein.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code milliseconds} negativ ist.
+     * @see                                 Search#calculateBestMoveInTime(int)
+     */
+    @Override
+    public void setTimeLimit(int milliseconds) {
+        if (milliseconds >= 0) {
+            engine.setTimeLimit(milliseconds);
+        } else {
+            throw new IllegalArgumentException("Time limit is negative!");
+        }
+    }
+
+    /**
+     * Setzt die Größe der Transpositionstabelle, in der die Suche der
+     * Maschine die Ergebnisse bereits durchsuchter Spielsituationen
+     * speichert. Die Tabelle belegt höchstens so viel Speicher wie
+     * angegeben, unabhängig davon, wie lange gespielt wird.
+     *
+     * @param megabytes                     Entspricht dem max Speicher der
+     *                                      Tabelle in MB und muss positiv
+     *                                      sein.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code megabytes} nicht positiv
+     *                                      ist.
+     * @see                                 TranspositionTable
+     */
+    @Override
+    public void setTableSize(int megabytes) {
+        if (megabytes > 0) {
+            engine.setTableSize(megabytes);
+        } else {
+            throw new IllegalArgumentException("Table size is negative"
+                    + " or 0!");
+        }
+    }
+
+    /**
+     * Setzt die Anzahl an Threads, auf die die Suche der Maschine verteilt
+     * wird. Bei mehr als einem Thread werden die Züge der Maschine parallel
+     * durchsucht. Mit festem Level bleibt der gewählte Zug derselbe, mit
+     * Zeitlimit kann die Suche mit mehr Threads tiefer kommen und einen
+     * anderen Zug wählen.
+     *
+     * @param threads                       Entspricht der Anzahl an Threads
+     *                                      und muss positiv sein.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code threads} nicht positiv ist.
+     * @see                                 ParallelSearch
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads > 0) {
+            engine.setThreads(threads);
+        } else {
+            throw new IllegalArgumentException("Number of threads is negative"
+                    + " or 0!");
+        }
+    }
+
+    /**
+     * Setzt die Anzahl an leeren Feldern, ab der die Maschine das Spiel
+     * exakt zu Ende rechnet, statt die Spielsituationen mit {@code Score}
+     * zu bewerten. Mit {@code 0} wird nie exakt gerechnet.
+     *
+     * @param empties                       Entspricht der Anzahl an leeren
+     *                                      Feldern und darf nicht negativ
+     *                                      sein.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code empties} negativ ist.
+     * @see                                 EndgameSolver
+     */
+    @Override
+    public void setEndgameThreshold(int empties) {
+        if (empties >= 0) {
+            engine.setEndgameThreshold(empties);
+        } else {
+            throw new IllegalArgumentException("Endgame threshold is"
+                    + " negative!");
+        }
+    }
+
+    /**
+     * Gibt die exakte Differenz der Steine am Ende des Spiels zurück, die
+     * die Maschine bei ihrem letzten Zug berechnet hat.
+     *
+     * @return              Entspricht den Steinen der Maschine abzüglich der
+     *                      Steine des Menschen bei perfektem Spiel oder
+     *                      {@code null}, falls der letzte Zug nicht exakt
+     *                      berechnet wurde.
+     */
+    @Override
+    public Integer getExpectedDiscDifferential() {
+        return engine.getExpectedDiscDifferential();
+    }
+
+    /**
+     * Gibt zurück, ob die Maschine bei perfektem Spiel gewinnt, wie bei
+     * ihrem letzten Zug berechnet.
+     *
+     * @return              Entspricht {@code 1} bei einem Sieg der Maschine,
+     *                      {@code -1} bei einem Sieg des Menschen, {@code 0}
+     *                      bei einem Unentschieden oder {@code null}, falls
+     *                      das Spiel beim letzten Zug nicht zu Ende gerechnet
+     *                      wurde.
+     */
+    @Override
+    public Integer getExpectedOutcome() {
+        return engine.getExpectedOutcome();
+    }
+
+    /**
+     * Lässt die Maschine Spielsituationen über die Gewichtstabellen von
+     * {@code PatternEvaluator} statt über {@code Score} bewerten. Die
+     * Transpositionstabelle wird dabei geleert, da ihre Scores mit der
+     * bisherigen Bewertung berechnet wurden.
+     *
+     * @param file              Entspricht der Datei mit den Gewichten oder
+     *                          {@code null}, falls wieder mit {@code Score}
+     *                          bewertet werden soll.
+     * @throws IOException      Wird geworfen, falls die Datei nicht gelesen
+     *                          werden kann oder keine Gewichte enthält.
+     * @see                     PatternEvaluator#load(Path)
+     */
+    @Override
+    public void setPatternWeights(Path file) throws IOException {
+        if (file == null) {
+            engine.setEvaluator(ScoreEvaluator.INSTANCE);
+        } else {
+            engine.setEvaluator(PatternEvaluator.load(file));
+        }
+    }
+
+    /**
+     * Lässt die Maschine die Züge eines Eröffnungsbuchs spielen, solange
+     * die Spielsituation im Buch steht.
+     *
+     * @param file              Entspricht der Datei des Buchs oder
+     *                          {@code null}, falls immer gesucht werden soll.
+     * @throws IOException      Wird geworfen, falls die Datei nicht gelesen
+     *                          werden kann oder kein Buch enthält.
+     * @see                     OpeningBook#open(Path)
+     */
+    @Override
+    public void setOpeningBook(Path file) throws IOException {
+        if (file == null) {
+            engine.setOpeningBook(null);
+        } else {
+            engine.setOpeningBook(OpeningBook.open(file));
+        }
+    }
+
+    /**
+     * Gibt die Bewertung der Spielsituationen zurück, die die Suche der
+     * Maschine verwendet.
+     *
+     * @return              Entspricht der Bewertung.
+     * @see                 #setPatternWeights(Path)
+     */
+    Evaluator getEvaluator() {
+        return engine.getEvaluator();
+    }
+
+    /**
+     * Legt das Verfahren fest, mit dem die Suche der Maschine auf mehrere
+     * Threads verteilt wird.
+     *
+     * @param parallelMode                  Entspricht dem Verfahren.
+     * @throws IllegalArgumentException     Wird geworfen, falls
+     *                                      {@code parallelMode} nicht
+     *                                      definiert ist.
+     * @see                                 ParallelMode
+     */
+    @Override
+    public void setParallelMode(ParallelMode parallelMode) {
+        if (parallelMode != null) {
+            engine.setParallelMode(parallelMode);
+        } else {
+            throw new IllegalArgumentException("Parallel mode is undefined!");
+        }
+    }
+
+    /**
+     * Legt fest, ob die Verteilung der Züge der Ausgangsspielsituation den
+     * besten Score und die Transpositionstabelle zwischen den Threads teilt.
+     * Ohne Teilen hängt auch die Anzahl der durchsuchten Spielsituationen
+     * nicht von der Reihenfolge der Threads ab.
+     *
+     * @param deterministic     Entspricht {@code true}, falls der Score
+     *                          nicht geteilt werden soll.
+     * @see                     ParallelSearch
+     */
+    @Override
+    public void setDeterministic(boolean deterministic) {
+        engine.setDeterministic(deterministic);
+    }
+
+    /**
+     * Gibt die Kennzahlen der letzten Suche der Maschine zurück, unter
+     * anderem die Anzahl der besuchten Spielsituationen, die Trefferquote
+     * der Transpositionstabelle und die Dauer des Zuges.
+     *
+     * @return              Entspricht den Kennzahlen oder {@code null}, falls
+     *                      die Maschine in diesem Spiel noch nicht gezogen
+     *                      hat.
+     * @see                 SearchStatistics
+     */
+    @Override
+    public SearchStatistics getLastStatistics() {
+        return engine.getLastStatistics();
+    }
+
     /**
      * Gibt zurück, ob das Spiel bereits vorbei ist, also keiner der Spieler
      * mehr ziehen kann.
@@ -196,6 +600,7 @@ public class Reversi implements Board {
      */
     @Override
     public boolean gameOver() {
+        resolveNextPlayer();
         return gameOver;
     }
 
@@ -216,6 +621,8 @@ public class Reversi implements Board {
     @Override
     public Player getWinner() {
         if (gameOver()) {
+            int numberOfHumanTiles = getNumberOfHumanTiles();
+            int numberOfMachineTiles = getNumberOfMachineTiles();
             if (numberOfHumanTiles > numberOfMachineTiles) {
                 return Player.HUMAN;
             } else if (numberOfHumanTiles < numberOfMachineTiles) {
@@ -235,7 +642,7 @@ public class Reversi implements Board {
      */
     @Override
     public int getNumberOfHumanTiles() {
-        return numberOfHumanTiles;
+        return Long.bitCount(humanDiscs);
     }
 
     /**
@@ -245,7 +652,7 @@ public class Reversi implements Board {
      */
     @Override
     public int getNumberOfMachineTiles() {
-        return numberOfMachineTiles;
+        return Long.bitCount(machineDiscs);
     }
 
     /**
@@ -264,13 +671,106 @@ public class Reversi implements Board {
     @Override
     public Player getSlot(int row, int col) {
         if (row > 0 && col > 0 && row <= Board.SIZE && col <= Board.SIZE) {
-            return gameBoard[row - 1][col - 1];
+            return getSlot(BitBoard.square(row, col));
         } else {
             throw new IllegalArgumentException("Row or col is negative"
                 + " or too big!");
         }
     }
 
+    /**
+     * Gibt den Inhalt des Felds mit dem Bitindex {@code square} zurück, wobei
+     * {@code null} für ein leeres Feld steht. Die Grenzen des Spielfelds
+     * werden nicht geprüft.
+     *
+     * @param square        Entspricht dem Bitindex des Feldes.
+     * @return              Gibt den Spieler des Steines auf dem Feld zurück.
+     *                      Falls {@code null} zurückgegeben wird, ist das Feld
+     *                      leer.
+     * @see                 BitBoard#square(int, int)
+     */
+    Player getSlot(int square) {
+        assert square >= 0 && square < Board.SIZE * Board.SIZE
+                : "Square is not on the board!";
+
+        long bit = 1L << square;
+        if ((humanDiscs & bit) != 0) {
+            return Player.HUMAN;
+        } else if ((machineDiscs & bit) != 0) {
+            return Player.MACHINE;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Gibt die Steine eines Spielers als Bitmaske zurück.
+     *
+     * @param player        Entspricht dem Spieler, dessen Steine
+     *                      zurückgegeben werden.
+     * @return              Gibt die Steine des Spielers zurück.
+     * @see                 BitBoard
+     */
+    long getDiscs(Player player) {
+        assert player != null : "Player cannot be undefined!";
+
+        if (player == Player.HUMAN) {
+            return humanDiscs;
+        } else {
+            return machineDiscs;
+        }
+    }
+
+    /**
+     * Gibt die stabilen Steine eines Spielers zurück, also Steine, die bis
+     * zum Ende des Spiels nicht mehr umgedreht werden können. Nicht jeder
+     * stabile Stein wird erkannt.
+     *
+     * @param player        Entspricht dem Spieler.
+     * @return              Gibt die stabilen Steine als Bitmaske zurück.
+     * @see                 BitBoard#stableDiscs(long, long)
+     */
+    long getStableDiscs(Player player) {
+        assert player != null : "Player cannot be undefined!";
+
+        return BitBoard.stableDiscs(getDiscs(player),
+                getDiscs(player.inverse()));
+    }
+
+    /**
+     * Gibt die Summe der Scores aller Felder eines Spielers zurück, ohne das
+     * Spielfeld zu durchlaufen.
+     *
+     * @param player        Entspricht dem Spieler.
+     * @return              Gibt die Summe der Scores der Felder zurück.
+     * @see                 Score#getFieldScore(int)
+     */
+    int getFieldScore(Player player) {
+        assert player != null : "Player cannot be undefined!";
+
+        if (player == Player.HUMAN) {
+            return humanFieldScore;
+        } else {
+            return machineFieldScore;
+        }
+    }
+
+    /**
+     * Gibt den Zobrist Hash der Spielsituation zurück, der sowohl die Steine
+     * als auch den nächsten Spieler berücksichtigt.
+     *
+     * @return              Gibt den Hash zurück.
+     * @see                 Zobrist
+     */
+    long getHash() {
+        resolveNextPlayer();
+        if (nextPlayer == Player.MACHINE) {
+            return hash ^ Zobrist.MACHINE_TO_MOVE;
+        } else {
+            return hash;
+        }
+    }
+
     /**
      * Klont das gesamte Spielobjekt tief und gibt den Klon darauf zurück.
      *
@@ -286,11 +786,8 @@ public class Reversi implements Board {
         } catch (CloneNotSupportedException e) {
             throw new IllegalStateException("Reversi has to be cloneable!");
         }
-        Player[][] gameCopy = gameBoard.clone();
-        for (int i = 0; i < gameCopy.length; i++) {
-            gameCopy[i] = gameCopy[i].clone();
-        }
-        copy.gameBoard = gameCopy;
+        copy.history = null;
+        copy.historySize = 0;
         return copy;
     }
 
@@ -303,9 +800,9 @@ public class Reversi implements Board {
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        for (int i = 1; i <= gameBoard.length; i++) {
-            for (int u = 1; u <= gameBoard[i - 1].length; u++) {
-                Player playerOfSlot = getSlot(i, u);
+        for (int i = 1; i <= Board.SIZE; i++) {
+            for (int u = 1; u <= Board.SIZE; u++) {
+                Player playerOfSlot = getSlot(BitBoard.square(i, u));
 
                 if (playerOfSlot == null) {
                     stringBuilder.append('.');
@@ -315,11 +812,11 @@ public class Reversi implements Board {
                     stringBuilder.append('O');
                 }
 
-                if (u != gameBoard[i - 1].length) {
+                if (u != Board.SIZE) {
                     stringBuilder.append(' ');
                 }
             }
-            if (i != gameBoard.length) {
+            if (i != Board.SIZE) {
                 stringBuilder.append("\n");
             }
         }
@@ -339,9 +836,7 @@ public class Reversi implements Board {
      *                                      Zug ausgeführt wurde, andernfalls
      *                                      wird {@code null} zurückgegeben.
      * @see                                 #next()
-     * @see                                 #checkLegalityOfMove(int, int,
-     *                                      Player)
-     * @see                                 #executeMove(int, int, List)
+     * @see                                 #moveForNextPlayer(int)
      *
      */
     Reversi moveForNextPlayer(int row, int col) {
@@ -349,9 +844,30 @@ public class Reversi implements Board {
         assert col > 0 && col <= Board.SIZE : "Col is not positive or to big!";
         assert next() != null : "Next player cannot be undefined!";
 
-        List<Direction> legalDirections = checkLegalityOfMove(row, col, next());
-        if (legalDirections.size() > 0) {
-            return executeMove(row, col, legalDirections);
+        return moveForNextPlayer(BitBoard.square(row, col));
+    }
+
+    /**
+     * Führt für den nächsten Spieler einen Zug auf dem Feld mit dem Bitindex
+     * {@code square} auf einem Klon aus, falls dieser legal ist.
+     *
+     * @param square            Entspricht dem Bitindex des Feldes, auf das
+     *                          der Stein gelegt werden soll.
+     * @return                  Falls der Zug legal ist, wird ein Klon
+     *                          zurückgegeben, auf dem der Zug ausgeführt
+     *                          wurde, andernfalls wird {@code null}
+     *                          zurückgegeben.
+     * @see                     #legalMoves(Player)
+     * @see                     #executeMove(int, long)
+     */
+    Reversi moveForNextPlayer(int square) {
+        assert square >= 0 && square < Board.SIZE * Board.SIZE
+                : "Square is not on the board!";
+        assert next() != null : "Next player cannot be undefined!";
+
+        long flipped = checkLegalityOfMove(square, next());
+        if (flipped != 0) {
+            return executeMove(square, flipped);
         } else {
             return null;
         }
@@ -365,78 +881,146 @@ public class Reversi implements Board {
      *                          legalen Züge berechnet wird.
      * @return                  Es wird die Anzahl an legalen, möglichen Zügen
      *                          zurückgegeben.
-     * @see                     #checkLegalityOfMove(int, int, Player)
+     * @see                     #legalMoves(Player)
      */
     int numberOfLegalMoves(Player player) {
         assert player != null : "Player cannot be undefined!";
 
-        int counter = 0;
-        for (int i = 1; i <= gameBoard.length; i++) {
-            for (int u = 1; u <= gameBoard[i - 1].length; u++) {
-                if (checkLegalityOfMove(i, u, player).size() > 0) {
-                    counter++;
-                }
+        return Long.bitCount(legalMoves(player));
+    }
+
+    /**
+     * Berechnet alle legalen Züge eines Spielers in einem Durchlauf und ohne
+     * Objekte anzulegen. Die Züge können in aufsteigender Reihenfolge der
+     * Bitindizes, also zeilenweise, abgearbeitet werden. Das Ergebnis wird
+     * pro Spieler zwischengespeichert, bis ein Zug ausgeführt wird, sodass
+     * die Prüfung auf Aussetzen, die Bewertung der Mobilität und das
+     * Erzeugen der Züge bei der Suche nur einmal gerechnet werden.
+     *
+     * @param player            Entspricht dem Spieler, für den die legalen
+     *                          Züge berechnet werden.
+     * @return                  Gibt alle Felder als Bitmaske zurück, auf die
+     *                          der Spieler legal ziehen kann.
+     * @see                     BitBoard#legalMoves(long, long)
+     */
+    long legalMoves(Player player) {
+        assert player != null : "Player cannot be undefined!";
+
+        if (player == Player.HUMAN) {
+            if (humanMoves == UNKNOWN_MOVES) {
+                humanMoves = BitBoard.legalMoves(humanDiscs, machineDiscs);
+            }
+            return humanMoves;
+        } else {
+            if (machineMoves == UNKNOWN_MOVES) {
+                machineMoves = BitBoard.legalMoves(machineDiscs, humanDiscs);
             }
+            return machineMoves;
+        }
+    }
+
+    /**
+     * Führt einen legalen Zug für den nächsten Spieler direkt auf diesem
+     * Spielfeld aus, statt einen Klon anzulegen. Der Zug kann mit
+     * {@link #undoMove()} wieder rückgängig gemacht werden. Diese Methode ist
+     * nur für die Suche der Maschine gedacht, die Spielfelder der
+     * {@code Board} Schnittstelle bleiben unveränderlich. Der nächste
+     * Spieler wird erst berechnet, wenn er benötigt wird, da die Suche viele
+     * Spielsituationen nie weiter untersucht.
+     *
+     * @param square            Entspricht dem Bitindex des Feldes, auf das
+     *                          der Stein gelegt werden soll.
+     * @see                     #legalMoves(Player)
+     * @see                     #resolveNextPlayer()
+     * @see                     UndoRecord
+     */
+    void makeMove(int square) {
+        resolveNextPlayer();
+        assert !gameOver : "The game cannot be already over!";
+        assert nextPlayer != null : "Next player cannot be undefined!";
+
+        long flipped = checkLegalityOfMove(square, nextPlayer);
+        assert flipped != 0 : "The move is not legal!";
+
+        if (history == null) {
+            history = new UndoRecord[Board.SIZE * Board.SIZE];
+        }
+        UndoRecord record = history[historySize];
+        if (record == null) {
+            record = new UndoRecord();
+            history[historySize] = record;
         }
-        return counter;
+        historySize++;
+
+        record.square = square;
+        record.flipped = flipped;
+        record.nextPlayer = nextPlayer;
+        record.gameOver = gameOver;
+        record.hash = hash;
+        record.humanFieldScore = humanFieldScore;
+        record.machineFieldScore = machineFieldScore;
+        record.humanMoves = humanMoves;
+        record.machineMoves = machineMoves;
+        applyMove(square, flipped);
+        nextPlayerPending = true;
+    }
+
+    /**
+     * Macht den zuletzt mit {@link #makeMove(int)} ausgeführten Zug
+     * rückgängig, wodurch das Spielfeld wieder dem Zustand vor dem Zug
+     * entspricht.
+     *
+     * @see                     UndoRecord
+     */
+    void undoMove() {
+        assert historySize > 0 : "There is no move to undo!";
+
+        historySize--;
+        UndoRecord record = history[historySize];
+        long move = 1L << record.square;
+        if (record.nextPlayer == Player.HUMAN) {
+            humanDiscs &= ~(move | record.flipped);
+            machineDiscs |= record.flipped;
+        } else {
+            machineDiscs &= ~(move | record.flipped);
+            humanDiscs |= record.flipped;
+        }
+        nextPlayer = record.nextPlayer;
+        gameOver = record.gameOver;
+        nextPlayerPending = false;
+        hash = record.hash;
+        humanFieldScore = record.humanFieldScore;
+        machineFieldScore = record.machineFieldScore;
+        humanMoves = record.humanMoves;
+        machineMoves = record.machineMoves;
     }
 
     /**
      * Prüft, ob ein Zug legal ist, also mindestens ein gegnerischer Stein
      * umgedreht wird und die gegnerischen Steine zwischen zwei eigenen
      * Steinen liegen. Zudem dürfen keine leeren Felder zwischen den eigenen
-     * Steinen liegen. Zur Ausführung werden alle Richtungen zurückgegeben,
-     * die legal sind.
+     * Steinen liegen. Zur Ausführung werden alle Steine zurückgegeben, die
+     * umgedreht werden müssen.
      *
-     * @param row               Entspricht der Zeile auf der der Stein gelegt
-     *                          werden soll.
-     * @param col               Entspricht der Spalte auf der der Stein gelegt
-     *                          werden soll.
+     * @param square            Entspricht dem Bitindex des Feldes, auf das
+     *                          der Stein gelegt werden soll.
      * @param player            Entspricht dem Spieler, für den geprüft werden
      *                          soll, ob der Zug legal ist.
-     * @return                  Falls ein Zug legal sind, werden alle legalen
-     *                          Richtungen zurückgegeben, andernfalls wird
-     *                          keine Richtung zurückgegeben.
+     * @return                  Falls ein Zug legal ist, werden alle
+     *                          umzudrehenden Steine als Bitmaske
+     *                          zurückgegeben, andernfalls wird {@code 0}
+     *                          zurückgegeben.
+     * @see                     BitBoard#flips(long, long, int)
      */
-    private List<Direction> checkLegalityOfMove(int row, int col,
-                                                 Player player) {
-        assert row > 0 && row <= Board.SIZE : "Row is not positive or to big!";
-        assert col > 0 && col <= Board.SIZE : "Col is not positive or to big!";
+    private long checkLegalityOfMove(int square, Player player) {
         assert player != null : "Player cannot be undefined!";
 
-        List<Direction> legalDirections = new ArrayList<>();
-        if (getSlot(row, col) == null) {
-            for (Direction direction : Direction.values()) {
-                int rowToCheck = row + direction.getY();
-                int colToCheck = col + direction.getX();
-                int counter = 0;
-                boolean isLegal = false;
-                boolean endLoop = false;
-
-                while (!endLoop && rowToCheck <= Board.SIZE && rowToCheck > 0
-                        && colToCheck <= Board.SIZE && colToCheck > 0) {
-                    Player playerOfSlot = getSlot(rowToCheck, colToCheck);
-
-                    if (playerOfSlot == player.inverse()) {
-                        counter++;
-                    } else if (playerOfSlot == player) {
-                        if (counter > 0) {
-                            isLegal = true;
-                        }
-                        endLoop = true;
-                    } else {
-                        endLoop = true;
-                    }
-                    rowToCheck += direction.getY();
-                    colToCheck += direction.getX();
-                }
-
-                if (isLegal) {
-                    legalDirections.add(direction);
-                }
-            }
+        if (getSlot(square) == null) {
+            return BitBoard.flips(getDiscs(player), getDiscs(player.inverse()),
+                    square);
+        } else {
+            return 0;
         }
-        return legalDirections;
     }
 
     /**
@@ -446,58 +1030,84 @@ public class Reversi implements Board {
      * Legalität geprüft wurde, können nicht mögliche Spielzustände
      * eintreten!
      *
-     * @param row               Entspricht der Zeile auf der der Stein gelegt
-     *                          werden soll.
-     * @param col               Entspricht der Spalte auf der der Stein gelegt
-     *                          werden soll.
-     * @param directions        Entsprechen den Richtungen, in denen Steine
-     *                          umgedreht werden müssen.
+     * @param square            Entspricht dem Bitindex des Feldes, auf das
+     *                          der Stein gelegt werden soll.
+     * @param flipped           Entspricht den Steinen, die umgedreht werden
+     *                          müssen.
      * @return                  Gibt einen Klon zurück, auf dem der Zug
      *                          ausgeführt wurde.
+     * @see                     #applyMove(int, long)
      * @see                     #setNextPlayer()
      */
-    private Reversi executeMove(int row, int col, List<Direction> directions) {
-        assert row > 0 && row <= Board.SIZE : "Row is not positive or to big!";
-        assert col > 0 && col <= Board.SIZE : "Col is not positive or to big!";
-        assert directions.size() > 0 : "The move is not legal!";
+    private Reversi executeMove(int square, long flipped) {
+        assert flipped != 0 : "The move is not legal!";
         assert nextPlayer != null : "Next player cannot be undefined!";
 
         Reversi copy = clone();
-        copy.gameBoard[row - 1][col - 1] = nextPlayer;
+        copy.applyMove(square, flipped);
+        copy.setNextPlayer();
+        return copy;
+    }
+
+    /**
+     * Führt einen bereits vorher auf Legalität geprüften Zug für
+     * {@code nextPlayer} direkt auf diesem Spielfeld aus und aktualisiert
+     * den Hash und die Summen der Scores der Felder inkrementell. Der
+     * nächste Spieler wird nicht berechnet.
+     *
+     * @param square            Entspricht dem Bitindex des Feldes, auf das
+     *                          der Stein gelegt werden soll.
+     * @param flipped           Entspricht den Steinen, die umgedreht werden
+     *                          müssen.
+     */
+    private void applyMove(int square, long flipped) {
+        assert flipped != 0 : "The move is not legal!";
+        assert nextPlayer != null : "Next player cannot be undefined!";
+
+        long move = 1L << square;
         if (nextPlayer == Player.HUMAN) {
-            copy.numberOfHumanTiles++;
+            humanDiscs |= move | flipped;
+            machineDiscs &= ~flipped;
         } else {
-            copy.numberOfMachineTiles++;
-        }
-
-        for (Direction direction: directions) {
-            boolean endLoop = false;
-            int rowToInverse = row + direction.getY();
-            int colToInverse = col + direction.getX();
-
-            while (!endLoop && rowToInverse <= Board.SIZE && rowToInverse > 0
-                    && colToInverse <= Board.SIZE && colToInverse > 0) {
-                Player playerOfSlot = getSlot(rowToInverse, colToInverse);
-
-                if (playerOfSlot == nextPlayer.inverse()) {
-                    copy.gameBoard[rowToInverse - 1][colToInverse - 1]
-                            = nextPlayer;
-                    if (nextPlayer == Player.HUMAN) {
-                        copy.numberOfHumanTiles++;
-                        copy.numberOfMachineTiles--;
-                    } else {
-                        copy.numberOfMachineTiles++;
-                        copy.numberOfHumanTiles--;
-                    }
-                } else {
-                    endLoop = true;
-                }
-                rowToInverse += direction.getY();
-                colToInverse += direction.getX();
-            }
+            machineDiscs |= move | flipped;
+            humanDiscs &= ~flipped;
+        }
+        hash ^= Zobrist.key(nextPlayer, square);
+        int flippedScore = 0;
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            int flippedSquare = Long.numberOfTrailingZeros(bits);
+            hash ^= Zobrist.flipKey(flippedSquare);
+            flippedScore += Score.getFieldScore(flippedSquare);
+        }
+        int gainedScore = Score.getFieldScore(square) + flippedScore;
+        if (nextPlayer == Player.HUMAN) {
+            humanFieldScore += gainedScore;
+            machineFieldScore -= flippedScore;
+        } else {
+            machineFieldScore += gainedScore;
+            humanFieldScore -= flippedScore;
+        }
+        assert hash == Zobrist.hash(humanDiscs, machineDiscs)
+                : "Hash was not updated correctly!";
+        assert humanFieldScore == Score.sumFieldScores(humanDiscs)
+                && machineFieldScore == Score.sumFieldScores(machineDiscs)
+                : "Field scores were not updated correctly!";
+        humanMoves = UNKNOWN_MOVES;
+        machineMoves = UNKNOWN_MOVES;
+    }
+
+    /**
+     * Berechnet den nächsten Spieler, falls dieser nach einem Zug der Suche
+     * noch aussteht. Wird von allen Methoden aufgerufen, die den nächsten
+     * Spieler oder das Ende des Spiels benötigen.
+     *
+     * @see                     #setNextPlayer()
+     */
+    private void resolveNextPlayer() {
+        if (nextPlayerPending) {
+            nextPlayerPending = false;
+            setNextPlayer();
         }
-        copy.setNextPlayer();
-        return copy;
     }
 
     /**
@@ -527,10 +1137,20 @@ public class Reversi implements Board {
     private void setInitialPosition() {
         assert firstPlayer != null : "First player cannot be undefined!";
 
-        int median = Board.SIZE / 2 - 1;
-        gameBoard[median][median] = firstPlayer.inverse();
-        gameBoard[median + 1][median] = firstPlayer;
-        gameBoard[median][median + 1] = firstPlayer;
-        gameBoard[median + 1][median + 1] = firstPlayer.inverse();
+        int median = Board.SIZE / 2;
+        long firstDiscs = (1L << BitBoard.square(median + 1, median))
+                | (1L << BitBoard.square(median, median + 1));
+        long secondDiscs = (1L << BitBoard.square(median, median))
+                | (1L << BitBoard.square(median + 1, median + 1));
+        if (firstPlayer == Player.HUMAN) {
+            humanDiscs = firstDiscs;
+            machineDiscs = secondDiscs;
+        } else {
+            machineDiscs = firstDiscs;
+            humanDiscs = secondDiscs;
+        }
+        hash = Zobrist.hash(humanDiscs, machineDiscs);
+        humanFieldScore = Score.sumFieldScores(humanDiscs);
+        machineFieldScore = Score.sumFieldScores(machineDiscs);
     }
 }
@@ -27,6 +27,23 @@ class Score {
      */
     private static final int[][] FIELD_SCORES = getFieldScores();
 
+    /**
+     * Entspricht {@link #FIELD_SCORES}, indiziert nach dem Bitindex der
+     * Felder.
+     *
+     * @see BitBoard#square(int, int)
+     */
+    private static final int[] FIELD_SCORES_BY_SQUARE = new int[Board.SIZE
+            * Board.SIZE];
+
+    static {
+        for (int square = 0; square < FIELD_SCORES_BY_SQUARE.length;
+                square++) {
+            FIELD_SCORES_BY_SQUARE[square]
+                    = FIELD_SCORES[square / Board.SIZE][square % Board.SIZE];
+        }
+    }
+
     /**
      * Kreiert ein Bewertungsobjekt für ein {@code Reversi} Objekt mit dem
      * zu bewertenden Spieler.
@@ -50,6 +67,7 @@ class Score {
      * @see             #calculateFieldScore()
      * @see             #calculateMobilityScore()
      * @see             #calculatePotencialScore()
+     * @see             #calculateStabilityScore()
      */
     double calculateScore() {
         assert reversi != null : "Reversi to assess cannot be undefined";
@@ -59,6 +77,7 @@ class Score {
         score += calculateFieldScore();
         score += calculateMobilityScore();
         score += calculatePotencialScore();
+        score += calculateStabilityScore();
         return score;
     }
 
@@ -67,28 +86,19 @@ class Score {
      * die Felder des Gegners mit einbezogen werden. Jedes Feld wird anders
      * bewertet. Diese Bewertungfunktion hat eine Größe von 8 x 8 hartkodiert
      * und kann somit andere Spielbrette nicht bewerten. Der Score wird mit
-     * einer bestimmten Formel berechnet.
+     * einer bestimmten Formel berechnet. Die Summen der Felder pro Spieler
+     * werden von {@code Reversi} bei jedem Zug inkrementell aktualisiert.
      *
      * @return              Gibt den Score der Felder zurück.
+     * @see                 Reversi#getFieldScore(Player)
      */
     private double calculateFieldScore() {
         assert Board.SIZE == 8 : "Calculating is only for 8x8 possible";
         assert reversi != null : "Reversi to assess cannot be undefined";
         assert playerToAssess != null : "Player to asses cannot be undefined";
 
-        int playerScore = 0;
-        int enemyScore = 0;
-        for (int i = 1; i <= Board.SIZE; i++) {
-            for (int u = 1; u <= Board.SIZE; u++) {
-                Player playerOfSlot = reversi.getSlot(i, u);
-
-                if (playerOfSlot == playerToAssess) {
-                    playerScore += FIELD_SCORES[i - 1][u - 1];
-                } else if (playerOfSlot == playerToAssess.inverse()) {
-                    enemyScore += FIELD_SCORES[i - 1][u - 1];
-                }
-            }
-        }
+        int playerScore = reversi.getFieldScore(playerToAssess);
+        int enemyScore = reversi.getFieldScore(playerToAssess.inverse());
         return playerScore - 1.5 * enemyScore;
     }
 
@@ -120,11 +130,12 @@ class Score {
      * Züge von {@code playerToAssess}, wobei auch die zukünftigen, möglichen
      * Züge des Gegners mit einbezogen werden. Der Score wird mit einer
      * bestimmten Formel berechnet und wird im Laufe des Spiels immer
-     * unwichtiger.
+     * unwichtiger. Die an die Steine anliegenden leeren Felder werden für
+     * das ganze Spielbrett auf einmal gezählt.
      *
      * @return                      Gibt den Score der zukünftig möglichen
      *                              Züge zurück.
-     * @see                         #countWrappingFields(int, int)
+     * @see                         BitBoard#countEmptyNeighbours(long, long)
      */
     private double calculatePotencialScore() {
         assert reversi != null : "Reversi to assess cannot be undefined";
@@ -133,48 +144,64 @@ class Score {
         int numberOfFields = Board.SIZE * Board.SIZE;
         int numberOfTakenFields = reversi.getNumberOfHumanTiles()
                                 + reversi.getNumberOfMachineTiles();
-        int playerScore = 0;
-        int enemyScore = 0;
-        for (int i = 1; i <= Board.SIZE; i++) {
-            for (int u = 1; u <= Board.SIZE; u++) {
-                Player playerOfSlot = reversi.getSlot(i, u);
-
-                if (playerOfSlot == playerToAssess) {
-                    enemyScore += countWrappingFields(i, u);
-                } else if (playerOfSlot == playerToAssess.inverse()) {
-                    playerScore += countWrappingFields(i, u);
-                }
-            }
-        }
+        long ownDiscs = reversi.getDiscs(playerToAssess);
+        long enemyDiscs = reversi.getDiscs(playerToAssess.inverse());
+        long empty = ~(ownDiscs | enemyDiscs);
+        int playerScore = BitBoard.countEmptyNeighbours(enemyDiscs, empty);
+        int enemyScore = BitBoard.countEmptyNeighbours(ownDiscs, empty);
         return (numberOfFields / (2.0 * numberOfTakenFields))
                 * (2.5 * playerScore - 3.0 * enemyScore);
     }
 
     /**
-     * Zählt die Anzahl der leeren Felder, die an das Feld in der Zeile
-     * {@code row} und in der Spalte {@code col} anliegen.
+     * Berechnet den Score der stabilen Steine von {@code playerToAssess},
+     * wobei auch die stabilen Steine des Gegners mit einbezogen werden.
+     * Anders als die statische Bewertung der Felder erkennt dieser Score, ob
+     * Steine an Kanten und in vollen Linien tatsächlich nicht mehr umgedreht
+     * werden können.
      *
-     * @param row       Entspricht der Zeile des Feldes.
-     * @param col       Entspricht der Spalte des Feldes.
-     * @return          Gibt die Anzahl der anliegenden Felder zurück.
+     * @return                      Gibt den Score der stabilen Steine zurück.
+     * @see                         Reversi#getStableDiscs(Player)
      */
-    private int countWrappingFields(int row, int col) {
-        assert row > 0 && row <= Board.SIZE : "Row is not positive or to big!";
-        assert col > 0 && col <= Board.SIZE : "Col is not positive or to big!";
+    private double calculateStabilityScore() {
         assert reversi != null : "Reversi to assess cannot be undefined";
+        assert playerToAssess != null : "Player to asses cannot be undefined";
 
-        int counter = 0;
-        for (Direction direction: Direction.values()) {
-            int rowToCount = row + direction.getY();
-            int colToCount = col + direction.getX();
-            if (rowToCount > 0 && rowToCount <= Board.SIZE && colToCount > 0
-                    && colToCount <= Board.SIZE) {
-                if (reversi.getSlot(rowToCount, colToCount) == null) {
-                    counter++;
-                }
-            }
+        int playerScore = Long.bitCount(reversi.getStableDiscs(playerToAssess));
+        int enemyScore = Long.bitCount(
+                reversi.getStableDiscs(playerToAssess.inverse()));
+        return 200.0 * playerScore - 300.0 * enemyScore;
+    }
+
+    /**
+     * Gibt den Score eines einzelnen Feldes des Spielbretts zurück. Wird
+     * zusätzlich für die Sortierung der Züge bei der Suche verwendet.
+     *
+     * @param square    Entspricht dem Bitindex des Feldes.
+     * @return          Gibt den Score des Feldes zurück.
+     * @see             BitBoard#square(int, int)
+     */
+    static int getFieldScore(int square) {
+        assert square >= 0 && square < Board.SIZE * Board.SIZE
+                : "Square is not on the board!";
+
+        return FIELD_SCORES_BY_SQUARE[square];
+    }
+
+    /**
+     * Gibt die Summe der Scores aller Felder zurück, die in {@code discs}
+     * gesetzt sind.
+     *
+     * @param discs     Entspricht den Steinen eines Spielers als Bitmaske.
+     * @return          Gibt die Summe der Scores der Felder zurück.
+     * @see             #getFieldScore(int)
+     */
+    static int sumFieldScores(long discs) {
+        int sum = 0;
+        for (long bits = discs; bits != 0; bits &= bits - 1) {
+            sum += FIELD_SCORES_BY_SQUARE[Long.numberOfTrailingZeros(bits)];
         }
-        return counter;
+        return sum;
     }
 
     /**
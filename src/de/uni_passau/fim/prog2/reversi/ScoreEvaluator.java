@@ -0,0 +1,32 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code ScoreEvaluator} bewertet Spielsituationen mit den handkodierten
+ * Formeln von {@code Score}. Diese Bewertung wird verwendet, solange keine
+ * Gewichte für {@code PatternEvaluator} geladen wurden.
+ *
+ * @version 21.12.19
+ * @author -----
+ * @see Score
+ */
+final class ScoreEvaluator implements Evaluator {
+
+    /**
+     * Entspricht der einzigen Instanz, da die Klasse keinen Zustand besitzt.
+     */
+    static final ScoreEvaluator INSTANCE = new ScoreEvaluator();
+
+    private ScoreEvaluator() { }
+
+    /**
+     * Bewertet eine Spielsituation mit {@link Score#calculateScore()}.
+     *
+     * @param position          Entspricht der zu bewertenden Spielsituation.
+     * @param playerToAssess    Entspricht dem zu bewertenden Spieler.
+     * @return                  Gibt den Score der Spielsituation zurück.
+     */
+    @Override
+    public double evaluate(Reversi position, Player playerToAssess) {
+        return new Score(position, playerToAssess).calculateScore();
+    }
+}
@@ -0,0 +1,717 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.Random;
+
+/**
+ * {@code Search} berechnet den besten Zug für einen Spieler mit derselben
+ * Bewertung wie {@code Tree}, baut dafür aber keinen Baum auf. Stattdessen
+ * werden die möglichen Züge rekursiv in Tiefensuche erzeugt, bewertet und
+ * sofort wieder verworfen. Der Speicherbedarf wächst somit nur mit der Tiefe
+ * und nicht mit der Anzahl der Spielsituationen. Mit
+ * {@link SearchMode#ALPHA_BETA} werden zusätzlich Teilbäume abgeschnitten,
+ * die den Score nicht mehr beeinflussen können. Statt bis zu einer festen
+ * Tiefe kann auch mit iterativer Vertiefung gesucht werden, bis eine
+ * vorgegebene Zeit abgelaufen ist. Spielsituationen, die über eine andere
+ * Zugreihenfolge erneut erreicht werden, werden bei der Alpha-Beta Suche mit
+ * Hilfe einer {@code TranspositionTable} nicht nochmals durchsucht. Die Züge
+ * werden vor der Suche so sortiert, dass vermutlich gute Züge zuerst
+ * durchsucht werden, wodurch mehr Teilbäume abgeschnitten werden.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+class Search {
+
+    /**
+     * Entspricht dem Ausgangsspielfeld der Suche.
+     */
+    private final Reversi root;
+
+    /**
+     * Entspricht der Spielsituation, auf der die Züge während der Suche
+     * ausgeführt und wieder rückgängig gemacht werden.
+     */
+    private final Reversi position;
+
+    /**
+     * Entspricht dem Spieler, für den der beste Zug gesucht wird.
+     */
+    private final Player playerToAssess;
+
+    /**
+     * Entspricht {@code true}, falls mit {@link SearchMode#ALPHA_BETA}
+     * gesucht wird und somit Teilbäume abgeschnitten werden dürfen.
+     */
+    private final boolean alphaBeta;
+
+    /**
+     * Entspricht der Transpositionstabelle der Suche. Ist {@code null}, falls
+     * keine Tabelle verwendet wird.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Entspricht der Bewertung der Spielsituationen, die beim Erzeugen der
+     * Suche gewählt war.
+     *
+     * @see Reversi#getEvaluator()
+     */
+    private final Evaluator evaluator;
+
+    /**
+     * Nimmt den Inhalt der Einträge auf, die in {@link #table} gefunden
+     * werden.
+     */
+    private final TranspositionTable.Entry entry
+            = new TranspositionTable.Entry();
+
+    /**
+     * Entspricht der Zahl, mit der der Hash einer Spielsituation verknüpft
+     * wird, damit Scores aus der Sicht verschiedener Spieler nicht verwechselt
+     * werden.
+     */
+    private final long perspective;
+
+    /**
+     * Entspricht dem Bitindex des besten Zuges, den
+     * {@link #calculateScoreOfChildren(int, int, double, double, int)} zuletzt
+     * gefunden hat.
+     */
+    private int bestMoveOfChildren;
+
+    /**
+     * Entspricht der Art der Schranke des Scores, den
+     * {@link #calculateScoreOfChildren(int, int, double, double, int)} zuletzt
+     * zurückgegeben hat.
+     */
+    private int boundOfChildren;
+
+    /**
+     * Entspricht der max Anzahl an Zügen, die während einer Suche
+     * hintereinander ausgeführt werden können.
+     */
+    private static final int MAX_PLY = Board.SIZE * Board.SIZE;
+
+    /**
+     * Entspricht dem Sortierschlüssel des Zuges aus der
+     * Transpositionstabelle, der stets zuerst durchsucht wird.
+     */
+    private static final long HASH_MOVE_KEY = Long.MAX_VALUE;
+
+    /**
+     * Entspricht dem Sortierschlüssel des ersten Killerzuges einer Tiefe.
+     * Der zweite Killerzug erhält den um eins kleineren Schlüssel.
+     */
+    private static final long KILLER_MOVE_KEY = Long.MAX_VALUE - 1;
+
+    /**
+     * Entspricht der Anzahl an Bits, um die der History Score im
+     * Sortierschlüssel verschoben wird, damit der Score des Feldes nur bei
+     * gleichem History Score entscheidet.
+     */
+    private static final int HISTORY_SHIFT = 16;
+
+    /**
+     * Entspricht pro Tiefe den Zügen, die an dieser Stelle sortiert und
+     * abgearbeitet werden.
+     */
+    private final int[][] moveBuffer = new int[MAX_PLY][MAX_PLY];
+
+    /**
+     * Entspricht pro Tiefe den Sortierschlüsseln der Züge in
+     * {@link #moveBuffer}.
+     */
+    private final long[][] keyBuffer = new long[MAX_PLY][MAX_PLY];
+
+    /**
+     * Entspricht pro Tiefe den zwei Zügen, die zuletzt einen Teilbaum
+     * abgeschnitten haben.
+     */
+    private final int[][] killerMoves = new int[MAX_PLY][2];
+
+    /**
+     * Entspricht pro Spieler und Feld der Summe der quadrierten
+     * verbleibenden Tiefen, bei denen ein Zug auf das Feld einen Teilbaum
+     * abgeschnitten hat.
+     */
+    private final int[][] history
+            = new int[Player.values().length][Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht dem besten Zug der letzten vollständigen Suche der
+     * Ausgangsspielsituation, der bei iterativer Vertiefung zuerst durchsucht
+     * wird.
+     */
+    private int bestMoveOfRoot = TranspositionTable.NO_MOVE;
+
+    /**
+     * Entspricht dem Score von {@link #bestMoveOfRoot}.
+     */
+    private double bestScoreOfRoot;
+
+    /**
+     * Entspricht den Kennzahlen der Suche.
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Entspricht dem Zeitpunkt nach {@link System#nanoTime()}, an dem die
+     * Suche abgebrochen wird.
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    /**
+     * Entspricht {@code true}, falls die Suche abgebrochen wurde, weil die
+     * Zeit abgelaufen ist. Das Ergebnis der Suche ist dann ungültig.
+     */
+    private boolean aborted;
+
+    /**
+     * Entspricht {@code true}, falls die Suche von einem anderen Thread
+     * beendet wurde.
+     *
+     * @see #stop()
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen, die noch bewertet werden,
+     * bis die Zeit wieder geprüft wird.
+     */
+    private int nodesUntilTimeCheck;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen zwischen zwei Prüfungen, ob
+     * die Zeit abgelaufen ist.
+     */
+    private static final int NODES_PER_TIME_CHECK = 1024;
+
+    /**
+     * Entspricht der Obergrenze der zufälligen Werte, mit denen die History
+     * von {@link #perturbOrdering(long)} gefüllt wird.
+     */
+    private static final int PERTURBATION = 16;
+
+    /**
+     * Kreiert eine Suche für das Ausgangsspielfeld, das nicht vorbei sein
+     * darf.
+     *
+     * @param root              Entspricht dem Ausgangsspielfeld.
+     * @param mode              Entspricht dem Verfahren der Suche.
+     * @param table             Entspricht der Transpositionstabelle, die bei
+     *                          der Alpha-Beta Suche verwendet wird, oder
+     *                          {@code null}, falls keine verwendet wird.
+     */
+    Search(Reversi root, SearchMode mode, TranspositionTable table) {
+        assert root != null : "The beginning game cannot be undefined!";
+        assert !root.gameOver() : "The game cannot be already over!";
+        assert mode != null : "The search mode cannot be undefined!";
+
+        this.root = root;
+        alphaBeta = mode == SearchMode.ALPHA_BETA;
+        position = root.clone();
+        playerToAssess = root.next();
+        evaluator = root.getEvaluator();
+        if (alphaBeta) {
+            this.table = table;
+        } else {
+            this.table = null;
+        }
+        if (playerToAssess == Player.HUMAN) {
+            perspective = Zobrist.HUMAN_TO_ASSESS;
+        } else {
+            perspective = 0;
+        }
+        for (int[] killers : killerMoves) {
+            killers[0] = TranspositionTable.NO_MOVE;
+            killers[1] = TranspositionTable.NO_MOVE;
+        }
+    }
+
+    /**
+     * Berechnet auf Basis der nächst möglichen Züge den besten Zug für den
+     * nächst ziehenden Spieler. Das Ergebnis entspricht dem von
+     * {@link Tree#calculateBestMove()} mit derselben Schwierigkeitsstufe.
+     *
+     * @param level     Entspricht der Schwierigkeitsstufe nach der der beste
+     *                  Zug berechnet wird.
+     * @return          Entspricht dem besten Zug, ausgeführt auf einem Klon.
+     * @see             #searchRoot(int)
+     */
+    Reversi calculateBestMove(int level) {
+        assert level > 0 : "Level cannot be negative or 0!";
+
+        if (table != null) {
+            table.newSearch();
+        }
+        return root.moveForNextPlayer(searchRoot(level));
+    }
+
+    /**
+     * Berechnet den besten Zug mit iterativer Vertiefung, wobei nacheinander
+     * mit den Tiefen 1, 2, 3 usw gesucht wird, bis die Zeit abgelaufen ist.
+     * Zurückgegeben wird der beste Zug der tiefsten vollständigen Suche. Die
+     * Suche mit Tiefe 1 wird immer vollständig durchgeführt, damit stets ein
+     * Zug gefunden wird. Tiefer als die Anzahl der leeren Felder wird nicht
+     * gesucht, da das Spiel spätestens dann vorbei ist.
+     *
+     * @param timeLimit     Entspricht der Zeit in Millisekunden, die für die
+     *                      Suche zur Verfügung steht.
+     * @return              Entspricht dem besten Zug, ausgeführt auf einem
+     *                      Klon.
+     * @see                 #searchRoot(int)
+     */
+    Reversi calculateBestMoveInTime(int timeLimit) {
+        assert timeLimit > 0 : "Time limit cannot be negative or 0!";
+
+        long deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        if (table != null) {
+            table.newSearch();
+        }
+        int bestMove = searchDeepening(1, 1, Long.MAX_VALUE);
+        int move = searchDeepening(2, getNumberOfEmptyFields(), deadline);
+        if (move >= 0) {
+            bestMove = move;
+        }
+        return root.moveForNextPlayer(bestMove);
+    }
+
+    /**
+     * Sucht mit iterativer Vertiefung von {@code firstLevel} bis
+     * {@code maxLevel}, bis die Zeit abgelaufen ist oder die Suche beendet
+     * wird. Beginnt keine neue Suche in der Transpositionstabelle, sodass
+     * mehrere Threads dieselbe Suche teilen können.
+     *
+     * @param firstLevel    Entspricht der Tiefe der ersten Suche.
+     * @param maxLevel      Entspricht der Tiefe der letzten Suche.
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Entspricht dem Bitindex des besten Zuges der
+     *                      tiefsten vollständigen Suche oder {@code -1},
+     *                      falls keine Suche vollständig war.
+     * @see                 #searchRoot(int)
+     */
+    int searchDeepening(int firstLevel, int maxLevel, long deadline) {
+        assert firstLevel > 0 : "Level cannot be negative or 0!";
+
+        this.deadline = deadline;
+        aborted = false;
+        int bestMove = -1;
+        for (int level = firstLevel; level <= maxLevel
+                && System.nanoTime() < deadline; level++) {
+            int move = searchRoot(level);
+            if (aborted) {
+                break;
+            }
+            bestMove = move;
+        }
+        return bestMove;
+    }
+
+    /**
+     * Gibt die Anzahl der leeren Felder der Ausgangsspielsituation zurück.
+     * Tiefer muss nicht gesucht werden, da das Spiel spätestens dann vorbei
+     * ist.
+     *
+     * @return          Entspricht der Anzahl der leeren Felder.
+     */
+    int getNumberOfEmptyFields() {
+        return Board.SIZE * Board.SIZE - root.getNumberOfHumanTiles()
+                - root.getNumberOfMachineTiles();
+    }
+
+    /**
+     * Beendet die Suche von einem anderen Thread aus. Die Suche bricht
+     * spätestens nach {@link #NODES_PER_TIME_CHECK} weiteren
+     * Spielsituationen ab, als wäre die Zeit abgelaufen.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Füllt die History mit kleinen zufälligen Werten, sodass die Züge in
+     * einer leicht anderen Reihenfolge durchsucht werden als von anderen
+     * Suchen derselben Spielsituation. Der berechnete Zug ändert sich
+     * dadurch nicht.
+     *
+     * @param seed      Entspricht dem Startwert der Zufallszahlen.
+     */
+    void perturbOrdering(long seed) {
+        Random random = new Random(seed);
+        for (int[] historyOfPlayer : history) {
+            for (int square = 0; square < historyOfPlayer.length; square++) {
+                historyOfPlayer[square] = random.nextInt(PERTURBATION);
+            }
+        }
+    }
+
+    /**
+     * Berechnet den Score eines einzelnen Zuges der Ausgangsspielsituation
+     * bis zu einer festen Tiefe. Wird von {@code ParallelSearch} verwendet,
+     * um die Züge der Ausgangsspielsituation auf mehrere Threads zu
+     * verteilen. Ist der Score nicht größer als {@code alpha}, ist er nur
+     * eine obere Schranke.
+     *
+     * @param square        Entspricht dem Bitindex des Zuges.
+     * @param level         Entspricht der max Tiefe der Suche.
+     * @param alpha         Entspricht dem Score, den die Maschine bereits
+     *                      sicher erreichen kann.
+     * @param deadline      Entspricht dem Zeitpunkt nach
+     *                      {@link System#nanoTime()}, an dem die Suche
+     *                      abgebrochen wird.
+     * @return              Gibt den Score des Zuges zurück. Dieser ist
+     *                      ungültig, falls {@link #isAborted()} {@code true}
+     *                      zurückgibt.
+     * @see                 #calculateScore(int, int, double, double)
+     */
+    double calculateScoreOfMove(int square, int level, double alpha,
+                                long deadline) {
+        assert level > 0 : "Level cannot be negative or 0!";
+
+        this.deadline = deadline;
+        aborted = false;
+        position.makeMove(square);
+        double score = calculateScore(level - 1, 1, alpha,
+                Double.POSITIVE_INFINITY);
+        position.undoMove();
+        return score;
+    }
+
+    /**
+     * Gibt zurück, ob die Suche abgebrochen wurde, weil die Zeit abgelaufen
+     * ist.
+     *
+     * @return          Entspricht {@code true}, falls die Suche abgebrochen
+     *                  wurde.
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Gibt die Kennzahlen der bisherigen Suche zurück.
+     *
+     * @return          Entspricht den Kennzahlen.
+     */
+    SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gibt den Score des besten Zuges der letzten vollständigen Suche der
+     * Ausgangsspielsituation zurück.
+     *
+     * @return          Entspricht dem Score aus Sicht des Spielers, der in
+     *                  der Ausgangsspielsituation am Zug ist.
+     */
+    double getBestScore() {
+        return bestScoreOfRoot;
+    }
+
+    /**
+     * Berechnet den besten Zug der Ausgangsspielsituation bis zu einer
+     * festen Tiefe. Falls die Zeit während der Suche abläuft, wird die Suche
+     * abgebrochen und {@link #aborted} gesetzt. Haben mehrere Züge denselben
+     * Score, wird unabhängig von der Sortierung der Züge der erste Zug in
+     * zeilenweiser Reihenfolge gewählt, wie es auch {@code Tree} tut. Dazu
+     * werden Züge, die in dieser Reihenfolge vor dem bisher besten Zug
+     * liegen, mit einem minimal kleineren Alpha durchsucht, sodass ein
+     * gleicher Score erkannt wird.
+     *
+     * @param level     Entspricht der max Tiefe der Suche.
+     * @return          Entspricht dem Bitindex des besten Zuges.
+     * @see             #calculateScore(int, int, double, double)
+     */
+    private int searchRoot(int level) {
+        long legalMoves = position.legalMoves(playerToAssess);
+        assert legalMoves != 0 : "The game must have moves because"
+                + " the game is not over yet!";
+
+        statistics.countNode(0);
+        int numberOfMoves = orderMoves(legalMoves, 0, bestMoveOfRoot);
+        int bestMove = -1;
+        double bestScoreOfChildren = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int square = nextMove(0, i, numberOfMoves);
+            double alpha = bestScoreOfChildren;
+            if (bestMove >= 0 && square < bestMove) {
+                alpha = Math.nextDown(bestScoreOfChildren);
+            }
+
+            position.makeMove(square);
+            double scoreOfChild = calculateScore(level - 1, 1, alpha,
+                    Double.POSITIVE_INFINITY);
+            position.undoMove();
+
+            if (aborted) {
+                return -1;
+            }
+            if (bestMove < 0 || scoreOfChild > bestScoreOfChildren
+                    || (scoreOfChild == bestScoreOfChildren
+                        && square < bestMove)) {
+                bestScoreOfChildren = scoreOfChild;
+                bestMove = square;
+            }
+        }
+        bestMoveOfRoot = bestMove;
+        bestScoreOfRoot = bestScoreOfChildren;
+        return bestMove;
+    }
+
+    /**
+     * Gibt den Score der momentanen Spielsituation zurück. Falls noch Züge
+     * bis zur max Tiefe möglich sind, werden diese ebenfalls in den Score
+     * involviert. Liegt der Score außerhalb des Fensters von {@code alpha}
+     * bis {@code beta}, ist nur garantiert, dass der zurückgegebene Wert
+     * ebenfalls außerhalb liegt. Falls die Zeit abgelaufen ist, wird die
+     * Suche abgebrochen und ein ungültiger Score zurückgegeben. Wurde die
+     * Spielsituation mit derselben verbleibenden Tiefe bereits durchsucht,
+     * wird das Ergebnis aus der Transpositionstabelle verwendet, sofern es
+     * für das Fenster ausreicht.
+     *
+     * @param level             Entspricht der verbleibenden Tiefe unterhalb
+     *                          der momentanen Spielsituation.
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     * @param alpha             Entspricht dem Score, den der maximierende
+     *                          Spieler bereits sicher erreichen kann.
+     * @param beta              Entspricht dem Score, den der minimierende
+     *                          Spieler bereits sicher erreichen kann.
+     * @return                  Gibt den Score zurück.
+     * @see                     #calculateScoreOfChildren(int, int, double,
+     *                          double, int)
+     */
+    private double calculateScore(int level, int ply, double alpha,
+                                  double beta) {
+        if (--nodesUntilTimeCheck <= 0) {
+            nodesUntilTimeCheck = NODES_PER_TIME_CHECK;
+            if (stopped || System.nanoTime() >= deadline) {
+                aborted = true;
+            }
+        }
+        if (aborted) {
+            return 0;
+        }
+        statistics.countNode(ply);
+
+        boolean hasChildren = level > 0 && !position.gameOver();
+        long key = 0;
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (table != null && hasChildren) {
+            key = position.getHash() ^ perspective;
+            boolean hit = table.probe(key, entry);
+            statistics.countTableProbe(hit);
+            if (hit) {
+                hashMove = entry.move;
+                if (entry.depth == level) {
+                    if (entry.bound == TranspositionTable.EXACT
+                            || (entry.bound == TranspositionTable.LOWER_BOUND
+                                && entry.score >= beta)
+                            || (entry.bound == TranspositionTable.UPPER_BOUND
+                                && entry.score <= alpha)) {
+                        return entry.score;
+                    }
+                }
+            }
+        }
+
+        double scoreOfRoot = evaluator.evaluate(position, playerToAssess);
+        if (hasChildren) {
+            scoreOfRoot += calculateScoreOfChildren(level, ply,
+                    alpha - scoreOfRoot, beta - scoreOfRoot, hashMove);
+            if (table != null && !aborted) {
+                table.store(key, level, boundOfChildren, scoreOfRoot,
+                        bestMoveOfChildren);
+            }
+        } else {
+            statistics.countLeaf();
+        }
+        return scoreOfRoot;
+    }
+
+    /**
+     * Gibt den Score der nächst möglichen Züge zurück, wobei dieser bei einem
+     * gegnerischen Zug dem Minimum und bei einem eigenen Zug dem Maximum
+     * entspricht. Bei der Alpha-Beta Suche werden die restlichen Züge nicht
+     * mehr betrachtet, sobald das Fenster von {@code alpha} bis {@code beta}
+     * leer ist. Der Zug, der dies auslöst, wird als Killerzug und im History
+     * Score vermerkt. Der beste Zug und die Art der Schranke des Scores
+     * werden in {@link #bestMoveOfChildren} und {@link #boundOfChildren}
+     * gespeichert.
+     *
+     * @param level             Entspricht der verbleibenden Tiefe unterhalb
+     *                          der momentanen Spielsituation.
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     * @param alpha             Entspricht dem Score, den der maximierende
+     *                          Spieler bereits sicher erreichen kann.
+     * @param beta              Entspricht dem Score, den der minimierende
+     *                          Spieler bereits sicher erreichen kann.
+     * @param hashMove          Entspricht dem besten Zug aus der
+     *                          Transpositionstabelle oder
+     *                          {@link TranspositionTable#NO_MOVE}.
+     * @return                  Gibt den Score zurück.
+     * @see                     #calculateScore(int, int, double, double)
+     */
+    private double calculateScoreOfChildren(int level, int ply, double alpha,
+                                            double beta, int hashMove) {
+        assert !position.gameOver() : "There must be at least 1 child!";
+
+        Player player = position.next();
+        boolean ownMove = player == playerToAssess;
+        int numberOfMoves
+                = orderMoves(position.legalMoves(player), ply, hashMove);
+        double alphaOfRoot = alpha;
+        double betaOfRoot = beta;
+        int bestMove = TranspositionTable.NO_MOVE;
+        int firstMove = TranspositionTable.NO_MOVE;
+        double scoreOfChildren;
+        if (ownMove) {
+            scoreOfChildren = Double.NEGATIVE_INFINITY;
+        } else {
+            scoreOfChildren = Double.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < numberOfMoves; i++) {
+            int square = nextMove(ply, i, numberOfMoves);
+            if (i == 0) {
+                firstMove = square;
+            }
+
+            position.makeMove(square);
+            double scoreOfChild = calculateScore(level - 1, ply + 1, alpha,
+                    beta);
+            position.undoMove();
+
+            if (aborted) {
+                return 0;
+            }
+            if (ownMove) {
+                if (scoreOfChildren < scoreOfChild) {
+                    scoreOfChildren = scoreOfChild;
+                    bestMove = square;
+                    alpha = Math.max(alpha, scoreOfChild);
+                }
+            } else {
+                if (scoreOfChildren > scoreOfChild) {
+                    scoreOfChildren = scoreOfChild;
+                    bestMove = square;
+                    beta = Math.min(beta, scoreOfChild);
+                }
+            }
+            if (alphaBeta && alpha >= beta) {
+                statistics.countCutoff();
+                rememberCutoff(player, square, level, ply);
+                break;
+            }
+        }
+
+        statistics.countInteriorNode(bestMove == firstMove);
+        bestMoveOfChildren = bestMove;
+        if (scoreOfChildren <= alphaOfRoot) {
+            boundOfChildren = TranspositionTable.UPPER_BOUND;
+        } else if (scoreOfChildren >= betaOfRoot) {
+            boundOfChildren = TranspositionTable.LOWER_BOUND;
+        } else {
+            boundOfChildren = TranspositionTable.EXACT;
+        }
+        return scoreOfChildren;
+    }
+
+    /**
+     * Schreibt alle legalen Züge einer Tiefe in {@link #moveBuffer} und
+     * berechnet deren Sortierschlüssel. Zuerst kommt der Zug aus der
+     * Transpositionstabelle, danach die Killerzüge der Tiefe und danach die
+     * restlichen Züge nach ihrem History Score. Bei gleichem History Score
+     * entscheidet der Score des Feldes nach {@link Score#getFieldScore(int)}.
+     *
+     * @param legalMoves        Entspricht allen legalen Zügen.
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     * @param hashMove          Entspricht dem Zug, der zuerst durchsucht
+     *                          wird, oder {@link TranspositionTable#NO_MOVE}.
+     * @return                  Gibt die Anzahl der Züge zurück.
+     * @see                     #nextMove(int, int, int)
+     */
+    private int orderMoves(long legalMoves, int ply, int hashMove) {
+        int[] moves = moveBuffer[ply];
+        long[] keys = keyBuffer[ply];
+        int[] killers = killerMoves[ply];
+        int[] historyOfPlayer = history[position.next().ordinal()];
+        int numberOfMoves = 0;
+        while (legalMoves != 0) {
+            int square = Long.numberOfTrailingZeros(legalMoves);
+            legalMoves &= legalMoves - 1;
+
+            long key;
+            if (square == hashMove) {
+                key = HASH_MOVE_KEY;
+            } else if (square == killers[0]) {
+                key = KILLER_MOVE_KEY;
+            } else if (square == killers[1]) {
+                key = KILLER_MOVE_KEY - 1;
+            } else {
+                key = ((long) historyOfPlayer[square] << HISTORY_SHIFT)
+                        + Score.getFieldScore(square);
+            }
+            moves[numberOfMoves] = square;
+            keys[numberOfMoves] = key;
+            numberOfMoves++;
+        }
+        return numberOfMoves;
+    }
+
+    /**
+     * Sucht unter den noch nicht durchsuchten Zügen einer Tiefe den Zug mit
+     * dem größten Sortierschlüssel und tauscht ihn an die Stelle
+     * {@code index}. Da oft schon einer der ersten Züge den Teilbaum
+     * abschneidet, wird nur so weit sortiert, wie es nötig ist.
+     *
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     * @param index             Entspricht der Anzahl der bereits
+     *                          durchsuchten Züge.
+     * @param numberOfMoves     Entspricht der Anzahl aller Züge.
+     * @return                  Gibt den Bitindex des nächsten Zuges zurück.
+     * @see                     #orderMoves(long, int, int)
+     */
+    private int nextMove(int ply, int index, int numberOfMoves) {
+        int[] moves = moveBuffer[ply];
+        long[] keys = keyBuffer[ply];
+        int best = index;
+        for (int i = index + 1; i < numberOfMoves; i++) {
+            if (keys[i] > keys[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        long key = keys[best];
+        moves[best] = moves[index];
+        keys[best] = keys[index];
+        moves[index] = move;
+        keys[index] = key;
+        return move;
+    }
+
+    /**
+     * Vermerkt einen Zug, der einen Teilbaum abgeschnitten hat, als
+     * Killerzug seiner Tiefe und erhöht seinen History Score.
+     *
+     * @param player            Entspricht dem Spieler, der den Zug ausführt.
+     * @param square            Entspricht dem Bitindex des Zuges.
+     * @param level             Entspricht der verbleibenden Tiefe unterhalb
+     *                          der Spielsituation vor dem Zug.
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     */
+    private void rememberCutoff(Player player, int square, int level,
+                                int ply) {
+        int[] killers = killerMoves[ply];
+        if (killers[0] != square) {
+            killers[1] = killers[0];
+            killers[0] = square;
+        }
+        history[player.ordinal()][square] += level * level;
+    }
+}
@@ -0,0 +1,24 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * Stellt die Verfahren dar, mit denen {@code Search} den besten Zug
+ * berechnen kann. Beide Verfahren liefern für dieselbe Schwierigkeitsstufe
+ * denselben Zug, unterscheiden sich aber in der Anzahl an besuchten
+ * Spielsituationen.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+enum SearchMode {
+
+    /**
+     * Entspricht der vollständigen Minimax Suche, die wie {@code Tree} alle
+     * Spielsituationen bis zur max Tiefe bewertet.
+     */
+    MINIMAX,
+    /**
+     * Entspricht der Alpha-Beta Suche, die Teilbäume abschneidet, sobald
+     * feststeht, dass diese den Score nicht mehr beeinflussen können.
+     */
+    ALPHA_BETA
+}
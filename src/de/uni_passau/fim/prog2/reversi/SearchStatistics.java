@@ -0,0 +1,377 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code SearchStatistics} sammelt Kennzahlen einer Suche der Maschine,
+ * anhand derer die Qualität der Zugsortierung und die Dauer der Suche
+ * beurteilt werden können. Jede Suche und somit jeder Thread zählt in ein
+ * eigenes Objekt, sodass das Zählen ohne Synchronisation auskommt. Die
+ * Kennzahlen paralleler Suchen werden erst nach der Suche mit
+ * {@link #merge(SearchStatistics)} zusammengeführt. Die Kennzahlen sind
+ * über {@link Board#getLastStatistics()} von außen lesbar, verändert werden
+ * sie nur von der Suche.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+public final class SearchStatistics {
+
+    /**
+     * Entspricht der max Anzahl an Zügen seit der Ausgangsspielsituation,
+     * wobei auch Aussetzen mitgezählt wird.
+     */
+    private static final int MAX_PLY = 2 * Board.SIZE * Board.SIZE;
+
+    /**
+     * Entspricht der Anzahl an besuchten Spielsituationen pro Anzahl an
+     * Zügen seit der Ausgangsspielsituation.
+     */
+    private final long[] nodesPerPly = new long[MAX_PLY + 1];
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen, die ohne weitere Züge
+     * bewertet wurden.
+     */
+    private long numberOfLeaves;
+
+    /**
+     * Entspricht der Anzahl an vollständig durchsuchten Spielsituationen, die
+     * mindestens einen Folgezug besitzen, ohne die Ausgangsspielsituation.
+     */
+    private long numberOfInteriorNodes;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen, bei denen der zuerst
+     * durchsuchte Zug der beste war oder den Teilbaum abgeschnitten hat.
+     */
+    private long numberOfFirstMoveBest;
+
+    /**
+     * Entspricht der Anzahl an Spielsituationen, deren restliche Züge
+     * abgeschnitten wurden.
+     */
+    private long numberOfCutoffs;
+
+    /**
+     * Entspricht der Anzahl an Zugriffen auf die Transpositionstabelle.
+     */
+    private long numberOfTableProbes;
+
+    /**
+     * Entspricht der Anzahl an Zugriffen auf die Transpositionstabelle, bei
+     * denen ein Eintrag gefunden wurde.
+     */
+    private long numberOfTableHits;
+
+    /**
+     * Entspricht der max Anzahl an Spielsituationen, die gleichzeitig im
+     * Speicher gehalten wurden.
+     */
+    private long peakLiveNodes;
+
+    /**
+     * Entspricht der Dauer des Zuges in Nanosekunden.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Kreiert leere Kennzahlen.
+     */
+    SearchStatistics() { }
+
+    /**
+     * Zählt eine besuchte Spielsituation. Bei einer Suche in die Tiefe sind
+     * die Spielsituationen auf dem Weg von der Ausgangsspielsituation
+     * gleichzeitig im Speicher.
+     *
+     * @param ply               Entspricht der Anzahl an Zügen seit der
+     *                          Ausgangsspielsituation.
+     */
+    void countNode(int ply) {
+        nodesPerPly[ply]++;
+        if (ply >= peakLiveNodes) {
+            peakLiveNodes = ply + 1;
+        }
+    }
+
+    /**
+     * Zählt eine Spielsituation, die ohne weitere Züge bewertet wurde.
+     */
+    void countLeaf() {
+        numberOfLeaves++;
+    }
+
+    /**
+     * Zählt eine vollständig durchsuchte Spielsituation mit Folgezügen.
+     *
+     * @param firstMoveBest     Entspricht {@code true}, falls der zuerst
+     *                          durchsuchte Zug der beste war.
+     */
+    void countInteriorNode(boolean firstMoveBest) {
+        numberOfInteriorNodes++;
+        if (firstMoveBest) {
+            numberOfFirstMoveBest++;
+        }
+    }
+
+    /**
+     * Zählt eine Spielsituation, deren restliche Züge abgeschnitten wurden.
+     */
+    void countCutoff() {
+        numberOfCutoffs++;
+    }
+
+    /**
+     * Zählt einen Zugriff auf die Transpositionstabelle.
+     *
+     * @param hit               Entspricht {@code true}, falls ein Eintrag
+     *                          gefunden wurde.
+     */
+    void countTableProbe(boolean hit) {
+        numberOfTableProbes++;
+        if (hit) {
+            numberOfTableHits++;
+        }
+    }
+
+    /**
+     * Zählt Spielsituationen, die gleichzeitig im Speicher gehalten werden,
+     * falls es mehr sind als bisher.
+     *
+     * @param liveNodes         Entspricht der Anzahl der Spielsituationen.
+     */
+    void countLiveNodes(long liveNodes) {
+        peakLiveNodes = Math.max(peakLiveNodes, liveNodes);
+    }
+
+    /**
+     * Setzt die Dauer des Zuges.
+     *
+     * @param nanos             Entspricht der Dauer in Nanosekunden.
+     */
+    void setElapsedNanos(long nanos) {
+        elapsedNanos = nanos;
+    }
+
+    /**
+     * Addiert die Kennzahlen einer anderen Suche zu diesen Kennzahlen. Wird
+     * benötigt, um die Kennzahlen paralleler Suchen zusammenzuführen. Da die
+     * Suchen gleichzeitig laufen, werden die Spielsituationen im Speicher
+     * addiert und von der Dauer das Maximum übernommen.
+     *
+     * @param other         Entspricht den Kennzahlen der anderen Suche.
+     */
+    void merge(SearchStatistics other) {
+        assert other != null : "Statistics cannot be undefined!";
+
+        for (int ply = 0; ply < nodesPerPly.length; ply++) {
+            nodesPerPly[ply] += other.nodesPerPly[ply];
+        }
+        numberOfLeaves += other.numberOfLeaves;
+        numberOfInteriorNodes += other.numberOfInteriorNodes;
+        numberOfFirstMoveBest += other.numberOfFirstMoveBest;
+        numberOfCutoffs += other.numberOfCutoffs;
+        numberOfTableProbes += other.numberOfTableProbes;
+        numberOfTableHits += other.numberOfTableHits;
+        peakLiveNodes += other.peakLiveNodes;
+        elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+    }
+
+    /**
+     * Gibt die Anzahl aller besuchten Spielsituationen zurück.
+     *
+     * @return          Entspricht der Anzahl der Spielsituationen.
+     */
+    public long getNumberOfNodes() {
+        long numberOfNodes = 0;
+        for (long nodes : nodesPerPly) {
+            numberOfNodes += nodes;
+        }
+        return numberOfNodes;
+    }
+
+    /**
+     * Gibt die Anzahl der besuchten Spielsituationen zurück, die eine
+     * bestimmte Anzahl an Zügen von der Ausgangsspielsituation entfernt
+     * liegen.
+     *
+     * @param ply       Entspricht der Anzahl an Zügen.
+     * @return          Entspricht der Anzahl der Spielsituationen oder
+     *                  {@code 0}, falls {@code ply} außerhalb der Suche
+     *                  liegt.
+     */
+    public long getNumberOfNodes(int ply) {
+        if (ply >= 0 && ply < nodesPerPly.length) {
+            return nodesPerPly[ply];
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Gibt die größte Anzahl an Zügen seit der Ausgangsspielsituation
+     * zurück, bei der noch eine Spielsituation besucht wurde.
+     *
+     * @return          Entspricht der Anzahl an Zügen oder {@code -1}, falls
+     *                  keine Spielsituation besucht wurde.
+     */
+    public int getMaxPly() {
+        int maxPly = nodesPerPly.length - 1;
+        while (maxPly >= 0 && nodesPerPly[maxPly] == 0) {
+            maxPly--;
+        }
+        return maxPly;
+    }
+
+    /**
+     * Gibt den effektiven Verzweigungsgrad nach einer Anzahl an Zügen
+     * zurück, also wie viele Folgezüge pro besuchter Spielsituation im
+     * Mittel durchsucht wurden. Je stärker die Alpha-Beta Suche
+     * abschneidet, desto kleiner ist er.
+     *
+     * @param ply       Entspricht der Anzahl an Zügen seit der
+     *                  Ausgangsspielsituation.
+     * @return          Entspricht dem Verzweigungsgrad oder {@code 0}, falls
+     *                  nach {@code ply} Zügen keine Spielsituation besucht
+     *                  wurde.
+     */
+    public double getBranchingFactor(int ply) {
+        long nodes = getNumberOfNodes(ply);
+        if (nodes > 0) {
+            return getNumberOfNodes(ply + 1) / (double) nodes;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Spielsituationen zurück, die ohne weitere Züge
+     * bewertet wurden.
+     *
+     * @return          Entspricht der Anzahl der Blätter.
+     */
+    public long getNumberOfLeaves() {
+        return numberOfLeaves;
+    }
+
+    /**
+     * Gibt die Anzahl der vollständig durchsuchten Spielsituationen mit
+     * Folgezügen ohne die Ausgangsspielsituation zurück.
+     *
+     * @return          Entspricht der Anzahl der inneren Knoten.
+     */
+    public long getNumberOfInteriorNodes() {
+        return numberOfInteriorNodes;
+    }
+
+    /**
+     * Gibt die Anzahl der Spielsituationen zurück, deren restliche Züge
+     * abgeschnitten wurden.
+     *
+     * @return          Entspricht der Anzahl der Cutoffs.
+     */
+    public long getNumberOfCutoffs() {
+        return numberOfCutoffs;
+    }
+
+    /**
+     * Gibt die Anzahl der Zugriffe auf die Transpositionstabelle zurück.
+     *
+     * @return          Entspricht der Anzahl der Zugriffe.
+     */
+    public long getNumberOfTableProbes() {
+        return numberOfTableProbes;
+    }
+
+    /**
+     * Gibt die Anzahl der Zugriffe auf die Transpositionstabelle zurück,
+     * bei denen ein Eintrag gefunden wurde.
+     *
+     * @return          Entspricht der Anzahl der Treffer.
+     */
+    public long getNumberOfTableHits() {
+        return numberOfTableHits;
+    }
+
+    /**
+     * Gibt den Anteil der Zugriffe auf die Transpositionstabelle zurück,
+     * bei denen ein Eintrag gefunden wurde.
+     *
+     * @return          Gibt den Anteil zwischen {@code 0} und {@code 1}
+     *                  zurück. Falls nicht auf die Tabelle zugegriffen
+     *                  wurde, wird {@code 0} zurückgegeben.
+     */
+    public double getTableHitRate() {
+        if (numberOfTableProbes > 0) {
+            return numberOfTableHits / (double) numberOfTableProbes;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Gibt die max Anzahl an Spielsituationen zurück, die gleichzeitig im
+     * Speicher gehalten wurden. Bei einer Suche in die Tiefe entspricht sie
+     * der Länge des längsten Weges, bei parallelen Suchen der Summe über
+     * alle Threads.
+     *
+     * @return          Entspricht der Anzahl der Spielsituationen.
+     */
+    public long getPeakLiveNodes() {
+        return peakLiveNodes;
+    }
+
+    /**
+     * Gibt die Dauer des Zuges zurück.
+     *
+     * @return          Entspricht der Dauer in Nanosekunden oder {@code 0},
+     *                  falls sie nicht gemessen wurde.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gibt den Anteil der Spielsituationen zurück, bei denen der zuerst
+     * durchsuchte Zug der beste war. Je näher dieser Anteil an {@code 1}
+     * liegt, desto besser ist die Zugsortierung.
+     *
+     * @return          Gibt den Anteil zwischen {@code 0} und {@code 1}
+     *                  zurück. Falls keine Spielsituation gezählt wurde,
+     *                  wird {@code 0} zurückgegeben.
+     */
+    public double getFirstMoveBestRate() {
+        if (numberOfInteriorNodes > 0) {
+            return numberOfFirstMoveBest / (double) numberOfInteriorNodes;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Gibt die Kennzahlen als lesbaren Text zurück, wobei der
+     * Verzweigungsgrad für jede Anzahl an Zügen seit der
+     * Ausgangsspielsituation angegeben wird.
+     *
+     * @return          Entspricht der Darstellung der Kennzahlen.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format("nodes: %d, leaves: %d,"
+                + " interior nodes: %d, cutoffs: %d%n", getNumberOfNodes(),
+                numberOfLeaves, numberOfInteriorNodes, numberOfCutoffs));
+        stringBuilder.append(String.format("first move best: %.1f%%,"
+                + " table hits: %.1f%% of %d probes%n",
+                100 * getFirstMoveBestRate(), 100 * getTableHitRate(),
+                numberOfTableProbes));
+        stringBuilder.append(String.format("peak live nodes: %d,"
+                + " elapsed time: %d ms%n", peakLiveNodes,
+                elapsedNanos / 1_000_000L));
+        stringBuilder.append("branching per ply:");
+        for (int ply = 0; ply < getMaxPly(); ply++) {
+            stringBuilder.append(String.format(" %.2f",
+                    getBranchingFactor(ply)));
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,261 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.Arrays;
+
+/**
+ * {@code TranspositionTable} speichert die Ergebnisse bereits durchsuchter
+ * Spielsituationen, damit eine Spielsituation, die über eine andere
+ * Zugreihenfolge erneut erreicht wird, nicht nochmals durchsucht werden
+ * muss. Die Tabelle hat eine feste Größe. Jeweils zwei Einträge bilden einen
+ * Bucket, wobei der erste Eintrag den Ergebnissen tieferer Suchen
+ * vorbehalten ist und der zweite Eintrag immer ersetzt wird. Der Score
+ * eines Eintrags hängt nur von der Spielsituation, der Tiefe, dem
+ * bewerteten Spieler und der Bewertung ab, nicht von der Suche, die ihn
+ * geschrieben hat. Einträge früherer Suchen desselben Spiels bleiben daher
+ * gültig, sodass die Suche nach dem nächsten Zug auf der vorherigen
+ * aufbaut. Sie altern aber mit jeder Suche, damit sie im ersten Eintrag
+ * eines Buckets nach und nach den Ergebnissen neuerer Suchen weichen.
+ * Einträge früherer Spiele gelten als veraltet. Die Einträge sind in ein
+ * {@code long} Array gepackt, sodass mehrere Threads die Tabelle ohne Locks
+ * teilen können.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class TranspositionTable {
+
+    /**
+     * Entspricht einem Score, der dem exakten Score der Spielsituation
+     * entspricht.
+     */
+    static final int EXACT = 0;
+
+    /**
+     * Entspricht einem Score, der eine untere Schranke des Scores der
+     * Spielsituation ist.
+     */
+    static final int LOWER_BOUND = 1;
+
+    /**
+     * Entspricht einem Score, der eine obere Schranke des Scores der
+     * Spielsituation ist.
+     */
+    static final int UPPER_BOUND = 2;
+
+    /**
+     * Entspricht dem Bitindex, der gespeichert wird, falls kein bester Zug
+     * bekannt ist.
+     */
+    static final int NO_MOVE = Board.SIZE * Board.SIZE;
+
+    /**
+     * Entspricht der Anzahl an {@code long}, die ein Eintrag belegt. Der
+     * erste Wert ist der Hash, verknüpft per XOR mit den beiden anderen
+     * Werten, der zweite der Score und der dritte die gepackten Daten.
+     */
+    private static final int LONGS_PER_ENTRY = 3;
+
+    /**
+     * Entspricht der Anzahl an Bytes, die ein Eintrag belegt.
+     */
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+
+    /**
+     * Entspricht allen Einträgen, jeweils {@link #LONGS_PER_ENTRY} Werte
+     * hintereinander. Die Daten enthalten die Tiefe, die Art der Schranke,
+     * den besten Zug und die Suche, die den Eintrag geschrieben hat.
+     */
+    private final long[] entries;
+
+    /**
+     * Entspricht der Maske, mit der aus einem Hash der Bucket berechnet wird.
+     */
+    private final int bucketMask;
+
+    /**
+     * Entspricht der Anzahl an Nummern, die Suchen erhalten, bevor die
+     * Nummern von vorne beginnen.
+     */
+    private static final int GENERATIONS = 255;
+
+    /**
+     * Entspricht der Anzahl an Tiefen, um die ein Eintrag pro Suche an
+     * Vorrang im ersten Eintrag eines Buckets verliert. Zwischen zwei Suchen
+     * der Maschine liegen meist zwei Züge, um die die gespeicherte Tiefe
+     * unter der neuen Ausgangsspielsituation kleiner wird.
+     */
+    private static final int DEPTH_LOSS_PER_SEARCH = 2;
+
+    /**
+     * Entspricht der Nummer der momentanen Suche. Ist nie {@code 0}, sodass
+     * leere Einträge stets als veraltet gelten.
+     */
+    private int generation = 1;
+
+    /**
+     * Entspricht der Anzahl an Suchen seit Beginn des Spiels ohne die
+     * momentane Suche. Einträge, die älter sind, gelten als veraltet.
+     */
+    private int searchesOfGame;
+
+    /**
+     * {@code Entry} nimmt den Inhalt eines gefundenen Eintrags auf. Jeder
+     * Thread verwendet ein eigenes Objekt, sodass der Inhalt nicht mehr von
+     * anderen Threads verändert werden kann, nachdem er geprüft wurde.
+     */
+    static final class Entry {
+
+        /**
+         * Entspricht dem gespeicherten Score.
+         */
+        double score;
+
+        /**
+         * Entspricht der verbleibenden Tiefe der Suche.
+         */
+        int depth;
+
+        /**
+         * Entspricht {@link #EXACT}, {@link #LOWER_BOUND} oder
+         * {@link #UPPER_BOUND}.
+         */
+        int bound;
+
+        /**
+         * Entspricht dem Bitindex des besten Zuges oder {@link #NO_MOVE}.
+         */
+        int move;
+    }
+
+    /**
+     * Kreiert eine Tabelle, die höchstens so viel Speicher belegt, wie
+     * angegeben. Die Anzahl der Einträge ist eine Zweierpotenz.
+     *
+     * @param megabytes     Entspricht dem max Speicher der Tabelle in MB.
+     */
+    TranspositionTable(int megabytes) {
+        assert megabytes > 0 : "Size cannot be negative or 0!";
+
+        long maxEntries = (megabytes * 1024L * 1024L) / BYTES_PER_ENTRY;
+        int numberOfEntries = (int) Long.highestOneBit(Math.min(maxEntries,
+                1L << 28));
+        entries = new long[numberOfEntries * LONGS_PER_ENTRY];
+        bucketMask = (numberOfEntries - 1) & ~1;
+    }
+
+    /**
+     * Beginnt eine neue Suche im selben Spiel. Die bisherigen Einträge
+     * bleiben gültig, altern aber um eine Suche. Darf nicht aufgerufen
+     * werden, während andere Threads die Tabelle verwenden.
+     */
+    void newSearch() {
+        generation = generation % GENERATIONS + 1;
+        searchesOfGame = Math.min(searchesOfGame + 1, GENERATIONS - 1);
+    }
+
+    /**
+     * Beginnt ein neues Spiel, wodurch alle bisherigen Einträge als veraltet
+     * gelten, ohne dass die Tabelle geleert werden muss. Darf nicht
+     * aufgerufen werden, während andere Threads die Tabelle verwenden.
+     */
+    void newGame() {
+        newSearch();
+        searchesOfGame = 0;
+    }
+
+    /**
+     * Leert die Tabelle, sodass auch Einträge des momentanen Spiels nicht
+     * mehr gefunden werden. Wird benötigt, falls sich die Bewertung der
+     * Spielsituationen ändert, da die gespeicherten Scores dann nicht mehr
+     * stimmen. Darf nicht aufgerufen werden, während andere Threads die
+     * Tabelle verwenden.
+     */
+    void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * Sucht den Eintrag einer Spielsituation des momentanen Spiels. Die
+     * Tabelle wird ohne Locks von mehreren Threads gleichzeitig verwendet.
+     * Ein Eintrag, der während des Lesens von einem anderen Thread
+     * überschrieben wird, passt nicht mehr zu seinem per XOR verknüpften
+     * Hash und wird daher ignoriert.
+     *
+     * @param key       Entspricht dem Hash der Spielsituation.
+     * @param entry     Nimmt den Inhalt des Eintrags auf, falls einer
+     *                  gefunden wird.
+     * @return          Gibt zurück, ob ein Eintrag gefunden wurde.
+     */
+    boolean probe(long key, Entry entry) {
+        int bucket = (int) key & bucketMask;
+        for (int index = bucket; index < bucket + 2; index++) {
+            int offset = index * LONGS_PER_ENTRY;
+            long check = entries[offset];
+            long score = entries[offset + 1];
+            long data = entries[offset + 2];
+            if ((check ^ score ^ data) == key
+                    && ageOf(data) <= searchesOfGame) {
+                entry.score = Double.longBitsToDouble(score);
+                entry.depth = (int) data & 0xff;
+                entry.bound = (int) (data >>> 8) & 0x3;
+                entry.move = (int) (data >>> 10) & 0x7f;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Speichert das Ergebnis einer Suche. Der erste Eintrag des Buckets wird
+     * nur ersetzt, falls er veraltet ist, dieselbe Spielsituation enthält
+     * oder abzüglich {@link #DEPTH_LOSS_PER_SEARCH} Tiefen pro Suche seit
+     * seinem Schreiben nicht tiefer ist. Andernfalls wird der zweite Eintrag
+     * ersetzt. Der Hash wird per XOR mit dem Score und den Daten verknüpft
+     * gespeichert, sodass gleichzeitige Schreibzugriffe anderer Threads beim
+     * Lesen erkannt werden.
+     *
+     * @param key       Entspricht dem Hash der Spielsituation.
+     * @param depth     Entspricht der verbleibenden Tiefe der Suche.
+     * @param bound     Entspricht der Art der Schranke des Scores.
+     * @param score     Entspricht dem Score der Spielsituation.
+     * @param move      Entspricht dem Bitindex des besten Zuges oder
+     *                  {@link #NO_MOVE}.
+     */
+    void store(long key, int depth, int bound, double score, int move) {
+        assert depth >= 0 && depth < 256 : "Depth is negative or too big!";
+        assert bound >= EXACT && bound <= UPPER_BOUND : "Unknown bound!";
+        assert move >= 0 && move <= NO_MOVE : "Move is not on the board!";
+
+        int offset = ((int) key & bucketMask) * LONGS_PER_ENTRY;
+        long dataOfFirst = entries[offset + 2];
+        long keyOfFirst = entries[offset] ^ entries[offset + 1] ^ dataOfFirst;
+        int ageOfFirst = ageOf(dataOfFirst);
+        if (keyOfFirst != key && ageOfFirst <= searchesOfGame
+                && (dataOfFirst & 0xff)
+                    - ageOfFirst * DEPTH_LOSS_PER_SEARCH > depth) {
+            offset += LONGS_PER_ENTRY;
+        }
+        long scoreBits = Double.doubleToLongBits(score);
+        long data = depth | bound << 8 | move << 10
+                | (long) generation << 17;
+        entries[offset] = key ^ scoreBits ^ data;
+        entries[offset + 1] = scoreBits;
+        entries[offset + 2] = data;
+    }
+
+    /**
+     * Gibt zurück, wie viele Suchen seit der Suche vergangen sind, die
+     * einen Eintrag geschrieben hat. Leere Einträge sind stets älter als
+     * das momentane Spiel.
+     *
+     * @param data      Entspricht den gepackten Daten des Eintrags.
+     * @return          Gibt die Anzahl an Suchen zurück.
+     */
+    private int ageOf(long data) {
+        int generationOfEntry = (int) (data >>> 17) & 0xff;
+        if (generationOfEntry == 0) {
+            return GENERATIONS;
+        }
+        return (generation - generationOfEntry + GENERATIONS) % GENERATIONS;
+    }
+}
@@ -5,10 +5,11 @@ import java.util.List;
 
 /**
  * {@code Tree} berechnet den besten Zug für einen Spieler, wobei für einzelne
- * Spielfelder die Scorewerte von {@code Score} benutzt werden. Zur
- * Berechnung wird ein Baum an möglichen Zügen einer max Tiefe generiert.
+ * Spielfelder die Bewertung von {@link Reversi#getEvaluator()} benutzt wird.
+ * Zur Berechnung wird ein Baum an möglichen Zügen einer max Tiefe generiert.
  * Diese Tiefe ist von dem Level abhängig. Aus diesem Baum wird dann der
- * beste Zug berechnet.
+ * beste Zug berechnet. Da der gesamte Baum im Speicher gehalten wird, dient
+ * {@code Tree} nur noch als Referenz für die Ergebnisse von {@code Search}.
  *
  * @version 21.12.19
  * @author -----
@@ -16,24 +17,39 @@ import java.util.List;
 class Tree {
 
     /**
-     * Entspricht der Wurzel des Baumes.
+     * Entspricht dem Ausgangsspielfeld des gesamten Baumes. Ist nur bei der
+     * Wurzel gesetzt.
      */
     private Reversi root;
 
+    /**
+     * Entspricht dem Bitindex des Feldes, auf das der Zug gesetzt wurde, der
+     * zu diesem Teilbaum führt. Ist bei der Wurzel {@code -1}.
+     */
+    private final int move;
+
     /**
      * Entspricht den Kinderbäumen der Wurzel.
      */
     private List<Tree> children;
 
+    /**
+     * Entspricht den Kennzahlen des gesamten Baumes. Ist nur bei der Wurzel
+     * gesetzt.
+     */
+    private SearchStatistics statistics;
+
     /**
      * Kreiert den gesamten Baum des Ausgangsspielfeldes, wobei durch den Baum
      * alle möglichen Züge simuliert werden. Das Spiel darf somit nicht vorbei
-     * sein.
+     * sein. Die Züge werden dabei auf einem einzigen Klon des
+     * Ausgangsspielfeldes ausgeführt und wieder rückgängig gemacht, sodass
+     * pro Knoten nur der Zug gespeichert wird.
      *
      * @param root              Entspricht dem Ausgangsspielfeldes.
      * @param level             Entspricht der Schwierigkeitsstufe nach der der
      *                          beste Zug berechnet wird.
-     * @see                     #buildTree(int)
+     * @see                     #buildTree(Reversi, int)
      */
     Tree(Reversi root, int level) {
         assert root != null : "The beginning game cannot be undefined!";
@@ -41,19 +57,24 @@ class Tree {
         assert !root.gameOver() : "The game cannot be already over!";
 
         this.root = root;
-        buildTree(level);
+        this.move = -1;
+        buildTree(root.clone(), level);
+        statistics = new SearchStatistics();
+        statistics.countLiveNodes(countNodes(statistics, 0));
     }
 
     /**
      * Kreiert einen Teilbaum des gesamten Baums, wobei die Wurzel ein
      * möglicher Zug darstellt.
      *
-     * @param root                  Entspricht einer möglichen Spielsituation.
+     * @param move                  Entspricht dem Bitindex des Feldes, auf
+     *                              das der mögliche Zug gesetzt wird.
      */
-    private Tree(Reversi root) {
-        assert root != null : "The game to assess cannot be undefined!";
+    private Tree(int move) {
+        assert move >= 0 && move < Board.SIZE * Board.SIZE
+                : "Move is not on the board!";
 
-        this.root = root;
+        this.move = move;
     }
 
     /**
@@ -61,73 +82,120 @@ class Tree {
      * auf, wobei von jeder Spielsituation die nächst Möglichen berechnet
      * werden. Die max Tiefe des Baumes ist dabei durch das Level gegeben.
      *
+     * @param position      Entspricht der Spielsituation dieses Teilbaums,
+     *                      auf der die Züge ausgeführt und wieder rückgängig
+     *                      gemacht werden.
      * @param level         Entspricht der Schwierigkeitsstufe und somit
      *                      der max Tiefe des Baumes.
-     * @see                 Reversi#moveForNextPlayer(int, int)
+     * @see                 Reversi#legalMoves(Player)
+     * @see                 Reversi#makeMove(int)
+     * @see                 Reversi#undoMove()
      */
-    private void buildTree(int level) {
+    private void buildTree(Reversi position, int level) {
         children = new ArrayList<>();
-        if (!root.gameOver() && level > 0) {
-            for (int i = 1; i <= Board.SIZE; i++) {
-                for (int u = 1; u <= Board.SIZE; u++) {
-                    Reversi moveOfNextPlayer = root.moveForNextPlayer(i, u);
-
-                    if (moveOfNextPlayer != null) {
-                        Tree tree = new Tree(moveOfNextPlayer);
-                        children.add(tree);
-                        tree.buildTree(level - 1);
-                    }
-                }
+        if (!position.gameOver() && level > 0) {
+            long legalMoves = position.legalMoves(position.next());
+            while (legalMoves != 0) {
+                int square = Long.numberOfTrailingZeros(legalMoves);
+                legalMoves &= legalMoves - 1;
+
+                Tree tree = new Tree(square);
+                children.add(tree);
+                position.makeMove(square);
+                tree.buildTree(position, level - 1);
+                position.undoMove();
             }
         }
     }
 
+    /**
+     * Zählt die Knoten und Blätter dieses Teilbaums in den Kennzahlen.
+     *
+     * @param statistics    Entspricht den Kennzahlen des gesamten Baumes.
+     * @param ply           Entspricht der Anzahl an Zügen seit der Wurzel
+     *                      des gesamten Baumes.
+     * @return              Gibt die Anzahl der Knoten dieses Teilbaums
+     *                      zurück.
+     */
+    private long countNodes(SearchStatistics statistics, int ply) {
+        statistics.countNode(ply);
+        if (children.isEmpty()) {
+            statistics.countLeaf();
+        }
+        long numberOfNodes = 1;
+        for (Tree child : children) {
+            numberOfNodes += child.countNodes(statistics, ply + 1);
+        }
+        return numberOfNodes;
+    }
+
+    /**
+     * Gibt die Kennzahlen des gesamten Baumes zurück. Da der gesamte Baum
+     * im Speicher gehalten wird, entspricht die max Anzahl an
+     * Spielsituationen im Speicher der Anzahl aller Knoten.
+     *
+     * @return          Entspricht den Kennzahlen.
+     */
+    SearchStatistics getStatistics() {
+        assert statistics != null : "Only the root has statistics!";
+
+        return statistics;
+    }
+
     /**
      * Berechnet auf Basis der nächst möglichen Züge den besten Zug für den
      * nächst ziehenden Spieler.
      *
      * @return          Entspricht dem besten Zug, ausgeführt auf einem Klon.
-     * @see             #calculateScore(Player)
+     * @see             #calculateScore(Reversi, Player)
      */
     Reversi calculateBestMove() {
+        assert root != null : "Only the root can calculate the best move!";
         assert !root.gameOver() : "The game must not be already over!";
         assert children.size() > 0 : "The game must have children because"
                 + " the game is not over yet!";
         assert root.next() != null : "The next player cannot be undefined!";
 
+        Reversi position = root.clone();
         Tree firstChild = children.get(0);
-        Reversi bestMove = firstChild.root;
-        double bestScoreOfChildren = firstChild.calculateScore(root.next());
+        int bestMove = firstChild.move;
+        double bestScoreOfChildren
+                = firstChild.calculateScore(position, root.next());
         for (int i = 1; i < children.size(); i++) {
             Tree child = children.get(i);
-            double scoreOfChild = child.calculateScore(root.next());
+            double scoreOfChild = child.calculateScore(position, root.next());
 
             if (scoreOfChild > bestScoreOfChildren) {
                 bestScoreOfChildren = scoreOfChild;
-                bestMove = child.root;
+                bestMove = child.move;
             }
         }
-        return bestMove;
+        return root.moveForNextPlayer(bestMove);
     }
 
 
     /**
      * Gibt den Score eines Kindes zurück. Falls dieser Kinder besitzt, werden
-     * diese ebenfalls in den Score involviert.
+     * diese ebenfalls in den Score involviert. Der Zug des Kindes wird dafür
+     * auf {@code position} ausgeführt und danach wieder rückgängig gemacht.
      *
+     * @param position          Entspricht der Spielsituation vor dem Zug des
+     *                          Kindes.
      * @param playerToAssess    Entspricht dem zu bewertenden Spieler.
      * @return                  Gibt den Score zurück.
-     * @see                     #calculateScoreOfChildren(Player)
+     * @see                     #calculateScoreOfChildren(Reversi, Player)
      */
-    private double calculateScore(Player playerToAssess) {
+    private double calculateScore(Reversi position, Player playerToAssess) {
         assert playerToAssess != null : "The player to asses cannot"
                 + " be undefined!";
 
-        Score score = new Score(root, playerToAssess);
-        double scoreOfRoot = score.calculateScore();
+        position.makeMove(move);
+        double scoreOfRoot = position.getEvaluator().evaluate(position,
+                playerToAssess);
         if (children.size() > 0) {
-            scoreOfRoot += calculateScoreOfChildren(playerToAssess);
+            scoreOfRoot += calculateScoreOfChildren(position, playerToAssess);
         }
+        position.undoMove();
         return scoreOfRoot;
     }
 
@@ -136,21 +204,25 @@ class Tree {
      * Gibt den Score der Kinder zurück, wobei dieser bei einem gegnerischen
      * Zug dem Minimum und bei einem eigenen Zug dem Maximum entspricht.
      *
+     * @param position          Entspricht der Spielsituation dieses
+     *                          Teilbaums.
      * @param playerToAssess    Entspricht dem bewertenden Spieler.
      * @return                  Gibt den Score zurück.
-     * @see                     #calculateScore(Player)
+     * @see                     #calculateScore(Reversi, Player)
      */
-    private double calculateScoreOfChildren(Player playerToAssess) {
+    private double calculateScoreOfChildren(Reversi position,
+                                            Player playerToAssess) {
         assert children.size() > 0 : "There must be at least 1 child!";
         assert playerToAssess != null : "The player to asses cannot"
                 + " be undefined!";
 
-        double scoreOfChildren = children.get(0).calculateScore(playerToAssess);
+        double scoreOfChildren
+                = children.get(0).calculateScore(position, playerToAssess);
         for (int i = 1; i < children.size(); i++) {
             double scoreOfChild
-                    = children.get(i).calculateScore(playerToAssess);
+                    = children.get(i).calculateScore(position, playerToAssess);
 
-            if (root.next() == playerToAssess) {
+            if (position.next() == playerToAssess) {
                 if (scoreOfChildren < scoreOfChild) {
                     scoreOfChildren = scoreOfChild;
                 }
@@ -0,0 +1,61 @@
+package de.uni_passau.fim.prog2.reversi;
+
+/**
+ * {@code UndoRecord} speichert alles, was nötig ist, um einen mit
+ * {@link Reversi#makeMove(int)} direkt auf dem Spielfeld ausgeführten Zug
+ * wieder rückgängig zu machen. Die Objekte werden von {@code Reversi} pro
+ * Suchtiefe einmal angelegt und danach wiederverwendet.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class UndoRecord {
+
+    /**
+     * Entspricht dem Bitindex des Feldes, auf das der Stein gelegt wurde.
+     */
+    int square;
+
+    /**
+     * Entspricht den Steinen, die durch den Zug umgedreht wurden.
+     */
+    long flipped;
+
+    /**
+     * Entspricht dem Spieler, der vor dem Zug an der Reihe war und somit
+     * den Zug ausgeführt hat.
+     */
+    Player nextPlayer;
+
+    /**
+     * Entspricht dem Zustand, ob das Spiel vor dem Zug vorbei war.
+     */
+    boolean gameOver;
+
+    /**
+     * Entspricht dem Hash der Steine vor dem Zug.
+     */
+    long hash;
+
+    /**
+     * Entspricht der Summe der Scores der Felder des Menschen vor dem Zug.
+     */
+    int humanFieldScore;
+
+    /**
+     * Entspricht der Summe der Scores der Felder der Maschine vor dem Zug.
+     */
+    int machineFieldScore;
+
+    /**
+     * Entspricht den zwischengespeicherten legalen Zügen des Menschen vor
+     * dem Zug.
+     */
+    long humanMoves;
+
+    /**
+     * Entspricht den zwischengespeicherten legalen Zügen der Maschine vor
+     * dem Zug.
+     */
+    long machineMoves;
+}
@@ -0,0 +1,110 @@
+package de.uni_passau.fim.prog2.reversi;
+
+import java.util.Random;
+
+/**
+ * {@code Zobrist} ist eine Utilityklasse, die für jedes Feld und jeden
+ * {@code Player} eine zufällige 64-Bit Zahl bereitstellt. Der Hash einer
+ * Spielsituation entspricht dem XOR der Zahlen aller Steine und kann nach
+ * einem Zug inkrementell aktualisiert werden. Die Zahlen werden aus einem
+ * festen Startwert erzeugt und sind somit bei jedem Programmstart gleich.
+ *
+ * @version 21.12.19
+ * @author -----
+ */
+final class Zobrist {
+
+    /**
+     * Entspricht dem Startwert des Zufallszahlengenerators.
+     */
+    private static final long SEED = 20191221L;
+
+    /**
+     * Entspricht den Zahlen für die Steine des menschlichen Spielers.
+     */
+    private static final long[] HUMAN_KEYS
+            = new long[Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht den Zahlen für die Steine der Maschine.
+     */
+    private static final long[] MACHINE_KEYS
+            = new long[Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht pro Feld dem XOR der Zahlen beider Spieler, womit ein
+     * umgedrehter Stein mit einer einzigen Operation aktualisiert wird.
+     */
+    private static final long[] FLIP_KEYS = new long[Board.SIZE * Board.SIZE];
+
+    /**
+     * Entspricht der Zahl, die hinzugefügt wird, falls die Maschine an der
+     * Reihe ist.
+     */
+    static final long MACHINE_TO_MOVE;
+
+    /**
+     * Entspricht der Zahl, die hinzugefügt wird, falls eine Spielsituation
+     * aus der Sicht des menschlichen Spielers bewertet wird.
+     */
+    static final long HUMAN_TO_ASSESS;
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < HUMAN_KEYS.length; i++) {
+            HUMAN_KEYS[i] = random.nextLong();
+            MACHINE_KEYS[i] = random.nextLong();
+            FLIP_KEYS[i] = HUMAN_KEYS[i] ^ MACHINE_KEYS[i];
+        }
+        MACHINE_TO_MOVE = random.nextLong();
+        HUMAN_TO_ASSESS = random.nextLong();
+    }
+
+    private Zobrist() { }
+
+    /**
+     * Gibt die Zahl eines Steines zurück.
+     *
+     * @param player        Entspricht dem Spieler des Steines.
+     * @param square        Entspricht dem Bitindex des Feldes.
+     * @return              Gibt die Zahl des Steines zurück.
+     */
+    static long key(Player player, int square) {
+        assert player != null : "Player cannot be undefined!";
+
+        if (player == Player.HUMAN) {
+            return HUMAN_KEYS[square];
+        } else {
+            return MACHINE_KEYS[square];
+        }
+    }
+
+    /**
+     * Gibt die Zahl zurück, mit der ein umgedrehter Stein im Hash
+     * aktualisiert wird.
+     *
+     * @param square        Entspricht dem Bitindex des Feldes.
+     * @return              Gibt die Zahl zurück.
+     */
+    static long flipKey(int square) {
+        return FLIP_KEYS[square];
+    }
+
+    /**
+     * Berechnet den Hash aller Steine einer Spielsituation vollständig neu.
+     *
+     * @param humanDiscs        Entspricht den Steinen des Menschen.
+     * @param machineDiscs      Entspricht den Steinen der Maschine.
+     * @return                  Gibt den Hash der Steine zurück.
+     */
+    static long hash(long humanDiscs, long machineDiscs) {
+        long hash = 0;
+        for (long bits = humanDiscs; bits != 0; bits &= bits - 1) {
+            hash ^= HUMAN_KEYS[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = machineDiscs; bits != 0; bits &= bits - 1) {
+            hash ^= MACHINE_KEYS[Long.numberOfTrailingZeros(bits)];
+        }
+        return hash;
+    }
+}